@@ -0,0 +1,38 @@
+package es.televoip.benchmark;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import es.televoip.model.entities.PatientData;
+import es.televoip.repository.PatientRepository;
+import es.televoip.service.ClinicalSearchIndex;
+import es.televoip.service.PatientSearchService;
+import es.televoip.service.PatientService;
+import es.televoip.service.PatientStatusSummaryService;
+
+/**
+ * Contexto Spring reducido para los benchmarks: solo JPA, los repositorios y los servicios de pacientes, sin Vaadin ni
+ * servidor web. Usa el perfil {@code benchmark} (H2 embebido, ver {@code application-benchmark.properties}).
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@EntityScan(basePackageClasses = PatientData.class)
+@EnableJpaRepositories(basePackageClasses = PatientRepository.class)
+@Import({ PatientService.class, PatientSearchService.class, PatientStatusSummaryService.class,
+		ClinicalSearchIndex.class })
+public class BenchmarkApplication {
+
+	public static ConfigurableApplicationContext start() {
+		return new SpringApplicationBuilder(BenchmarkApplication.class)
+				.web(WebApplicationType.NONE)
+				.profiles("benchmark")
+				.run();
+	}
+
+}
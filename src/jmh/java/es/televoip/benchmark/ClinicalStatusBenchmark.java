@@ -0,0 +1,38 @@
+package es.televoip.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import es.televoip.model.enums.ClinicalStatus;
+
+/**
+ * Conversión de los estados guardados en base de datos (nombre visible o código) a {@link ClinicalStatus}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClinicalStatusBenchmark {
+
+	// Primer valor del enum, último valor y entrada con mayúsculas y espacios
+	@Param({ "urgent", "Completado", "  EN CURSO " })
+	private String status;
+
+	@Benchmark
+	public ClinicalStatus fromString() {
+		return ClinicalStatus.fromString(status);
+	}
+
+}
@@ -0,0 +1,226 @@
+package es.televoip.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import es.televoip.model.entities.PatientData;
+import es.televoip.model.enums.ClinicalStatus;
+import es.televoip.repository.PatientRepository;
+import es.televoip.util.StringUtils;
+import es.televoip.util.UuidV7;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Perfiles de carga de pacientes antes y después de sustituir los JOIN FETCH por entity graphs: la consulta cartesiana
+ * anterior ({@code LEFT JOIN FETCH p.clinicalDataList cd LEFT JOIN FETCH cd.category}) frente a los métodos actuales
+ * de {@link PatientRepository} para el panel lateral y el grid de administración.
+ * <p>
+ * Además del tiempo, cada benchmark informa por llamada (contadores auxiliares de JMH):
+ * <ul>
+ * <li>{@code rowsPerCall}: filas que devuelve el result set JDBC, contadas con el {@code COUNT(*)} equivalente.</li>
+ * <li>{@code entitiesPerCall}: entidades que materializa Hibernate (estadísticas de Hibernate).</li>
+ * <li>{@code bytesPerCall}: memoria de heap asignada por el hilo durante la llamada. Se puede contrastar con
+ * {@code -Djmh.args="FetchProfileBenchmark -prof gc"} ({@code gc.alloc.rate.norm}).</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xms1g", "-Xmx2g" })
+public class FetchProfileBenchmark {
+
+	private static final int RECORDS_PER_PATIENT = 5;
+	private static final int INSERT_BATCH_SIZE = 10_000;
+
+	// Consultas de PatientRepository anteriores a los entity graphs
+	private static final String JOIN_FETCH_ALL = "SELECT DISTINCT p FROM PatientData p "
+			+ "LEFT JOIN FETCH p.clinicalDataList cd LEFT JOIN FETCH cd.category c";
+	private static final String JOIN_FETCH_ACTIVE = JOIN_FETCH_ALL + " WHERE p.status = 'active'";
+
+	private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory
+			.getThreadMXBean();
+
+	@Param({ "1000", "10000" })
+	private int patients;
+
+	private ConfigurableApplicationContext context;
+	private PatientRepository patientRepository;
+	private EntityManagerFactory entityManagerFactory;
+	private Statistics statistics;
+
+	private long joinFetchAllRows;
+	private long joinFetchActiveRows;
+	private long allRows;
+	private long activeRows;
+
+	/**
+	 * Contadores por llamada de cada benchmark, reiniciados en cada iteración.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Transfer {
+		private long calls;
+		private long rows;
+		private long entities;
+		private long bytes;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			calls = 0;
+			rows = 0;
+			entities = 0;
+			bytes = 0;
+		}
+
+		void record(long callRows, long callEntities, long callBytes) {
+			calls++;
+			rows += callRows;
+			entities += callEntities;
+			bytes += callBytes;
+		}
+
+		public double rowsPerCall() {
+			return calls == 0 ? 0 : (double) rows / calls;
+		}
+
+		public double entitiesPerCall() {
+			return calls == 0 ? 0 : (double) entities / calls;
+		}
+
+		public double bytesPerCall() {
+			return calls == 0 ? 0 : (double) bytes / calls;
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void setup() {
+		context = BenchmarkApplication.start();
+		patientRepository = context.getBean(PatientRepository.class);
+		entityManagerFactory = context.getBean(EntityManagerFactory.class);
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+
+		JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+		seed(jdbc);
+
+		// Filas del result set de cada consulta: el producto cartesiano frente a una fila por paciente
+		String join = "SELECT COUNT(*) FROM patient_data p LEFT JOIN clinical_data cd ON cd.patient_id = p.id";
+		joinFetchAllRows = jdbc.queryForObject(join, Long.class);
+		joinFetchActiveRows = jdbc.queryForObject(join + " WHERE p.status = 'active'", Long.class);
+		allRows = jdbc.queryForObject("SELECT COUNT(*) FROM patient_data", Long.class);
+		activeRows = jdbc.queryForObject("SELECT COUNT(*) FROM patient_data WHERE status = 'active'", Long.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<PatientData> sidebarJoinFetch(Transfer transfer) {
+		return measure(transfer, joinFetchAllRows, () -> query(JOIN_FETCH_ALL));
+	}
+
+	@Benchmark
+	public List<PatientData> sidebarEntityGraph(Transfer transfer) {
+		return measure(transfer, allRows, patientRepository::findAllWithClinicalData);
+	}
+
+	@Benchmark
+	public List<PatientData> adminGridJoinFetch(Transfer transfer) {
+		return measure(transfer, joinFetchActiveRows, () -> query(JOIN_FETCH_ACTIVE));
+	}
+
+	@Benchmark
+	public List<PatientData> adminGridEntityGraph(Transfer transfer) {
+		return measure(transfer, activeRows, patientRepository::findAllActivePatients);
+	}
+
+	private <T> T measure(Transfer transfer, long rows, Supplier<T> call) {
+		long entitiesBefore = statistics.getEntityLoadCount();
+		long bytesBefore = THREADS.getCurrentThreadAllocatedBytes();
+		T result = call.get();
+		transfer.record(rows, statistics.getEntityLoadCount() - entitiesBefore,
+				THREADS.getCurrentThreadAllocatedBytes() - bytesBefore);
+		return result;
+	}
+
+	// Un contexto de persistencia por llamada, como el de los métodos del repositorio
+	private List<PatientData> query(String jpql) {
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		try {
+			return entityManager.createQuery(jpql, PatientData.class).getResultList();
+		} finally {
+			entityManager.close();
+		}
+	}
+
+	private void seed(JdbcTemplate jdbc) {
+		String categoryId = UUID.randomUUID().toString();
+		jdbc.update("INSERT INTO category (id, name, icon, is_active, display_order) VALUES (?, ?, ?, ?, ?)",
+				categoryId, "Analíticas", "vaadin:folder", true, 1);
+
+		ClinicalStatus[] statuses = ClinicalStatus.values();
+		LocalDateTime baseDate = LocalDateTime.of(2024, 1, 1, 0, 0);
+		List<Object[]> patientRows = new ArrayList<>();
+		List<Object[]> clinicalRows = new ArrayList<>();
+		for (int i = 0; i < patients; i++) {
+			String patientId = UuidV7.generateString();
+			Timestamp created = Timestamp.valueOf(baseDate.plusMinutes(i));
+			// Uno de cada diez suspendido, para que el grid de pacientes activos filtre algo
+			patientRows.add(new Object[] { patientId, "Paciente " + i, "Apellido " + i, "paciente" + i + "@example.com",
+					String.valueOf(600_000_000L + i), i % 10 == 0 ? "suspended" : "active", created, created });
+
+			for (int r = 0; r < RECORDS_PER_PATIENT; r++) {
+				String title = "Registro " + r;
+				String description = "Paciente con diagnóstico de hipertensión arterial, revisión número " + r;
+				clinicalRows.add(new Object[] { UuidV7.generateString(), patientId, categoryId, title, description,
+						statuses[(i + r) % statuses.length].getDisplayName(), Timestamp.valueOf(baseDate.plusDays(r)),
+						StringUtils.normalizeForSearch(title + " " + description) });
+			}
+
+			if (patientRows.size() >= INSERT_BATCH_SIZE) {
+				flush(jdbc, patientRows, clinicalRows);
+			}
+		}
+		flush(jdbc, patientRows, clinicalRows);
+	}
+
+	private static void flush(JdbcTemplate jdbc, List<Object[]> patientRows, List<Object[]> clinicalRows) {
+		jdbc.batchUpdate("INSERT INTO patient_data (id, name, last_name, email, phone_number, status, created_at, "
+				+ "updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", patientRows);
+		jdbc.batchUpdate("INSERT INTO clinical_data (id, patient_id, category_id, title, description, status, date, "
+				+ "search_text, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)", clinicalRows);
+		patientRows.clear();
+		clinicalRows.clear();
+	}
+
+}
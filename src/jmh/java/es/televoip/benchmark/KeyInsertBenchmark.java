@@ -0,0 +1,126 @@
+package es.televoip.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import es.televoip.util.UuidV7;
+
+/**
+ * Inserción por lotes en una tabla con la forma de {@code clinical_data} (clave primaria y un índice secundario por
+ * paciente y fecha), comparando las claves anteriores (UUIDv4 aleatorio en {@code VARCHAR(36)}) con las actuales
+ * (UUIDv7 en una columna {@code UUID} de 16 bytes).
+ * <p>
+ * Por defecto usa H2 en memoria, que solo sirve para comprobar que el benchmark funciona. Para medir el efecto real en
+ * el índice agrupado de InnoDB hay que apuntarlo a un MariaDB de pruebas (10.7 o posterior):
+ * {@code -Dbenchmark.jdbc.url=jdbc:mariadb://localhost:3306/bench -Dbenchmark.jdbc.user=... -Dbenchmark.jdbc.password=...}.
+ * En ese caso, al final de cada trial se imprime el tamaño de datos e índices de la tabla.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class KeyInsertBenchmark {
+
+	private static final String TABLE = "key_insert_benchmark";
+	private static final int BATCH_SIZE = 1_000;
+	// Pacientes entre los que se reparten los registros, para que el índice secundario también crezca
+	private static final int PATIENTS = 10_000;
+
+	@Param({ "uuid4-varchar", "uuid7-uuid" })
+	private String keyType;
+
+	private Connection connection;
+	private PreparedStatement insert;
+	private String[] patientIds;
+	private long rows;
+
+	@Setup(Level.Trial)
+	public void setup() throws SQLException {
+		connection = DriverManager.getConnection(
+				System.getProperty("benchmark.jdbc.url", "jdbc:h2:mem:keys;DB_CLOSE_DELAY=-1"),
+				System.getProperty("benchmark.jdbc.user", "sa"), System.getProperty("benchmark.jdbc.password", ""));
+		connection.setAutoCommit(false);
+
+		String idType = keyType.equals("uuid7-uuid") ? "UUID" : "VARCHAR(36)";
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("DROP TABLE IF EXISTS " + TABLE);
+			statement.execute("CREATE TABLE " + TABLE + " (id " + idType + " NOT NULL PRIMARY KEY, patient_id "
+					+ idType + " NOT NULL, title VARCHAR(255) NOT NULL, date TIMESTAMP NOT NULL)");
+			statement.execute("CREATE INDEX idx_" + TABLE + "_patient_date ON " + TABLE + " (patient_id, date)");
+		}
+		connection.commit();
+
+		patientIds = new String[PATIENTS];
+		for (int i = 0; i < PATIENTS; i++) {
+			patientIds[i] = newId();
+		}
+		insert = connection
+				.prepareStatement("INSERT INTO " + TABLE + " (id, patient_id, title, date) VALUES (?, ?, ?, ?)");
+		rows = 0;
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		if (connection.getMetaData().getDatabaseProductName().toLowerCase().contains("maria")) {
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("ANALYZE TABLE " + TABLE);
+				try (ResultSet rs = statement.executeQuery("SELECT DATA_LENGTH, INDEX_LENGTH "
+						+ "FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = '" + TABLE + "'")) {
+					if (rs.next()) {
+						System.out.printf("%n%s: %d filas, datos %d KB, índices %d KB%n", keyType, rows,
+								rs.getLong("DATA_LENGTH") / 1024, rs.getLong("INDEX_LENGTH") / 1024);
+					}
+				}
+			}
+		}
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("DROP TABLE " + TABLE);
+		}
+		connection.commit();
+		insert.close();
+		connection.close();
+	}
+
+	@Benchmark
+	public int[] insertBatch() throws SQLException {
+		Timestamp now = new Timestamp(System.currentTimeMillis());
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			insert.setString(1, newId());
+			insert.setString(2, patientIds[(int) (rows++ % PATIENTS)]);
+			insert.setString(3, "Revisión cardiológica");
+			insert.setTimestamp(4, now);
+			insert.addBatch();
+		}
+		int[] result = insert.executeBatch();
+		connection.commit();
+		return result;
+	}
+
+	private String newId() {
+		return keyType.equals("uuid7-uuid") ? UuidV7.generateString() : UUID.randomUUID().toString();
+	}
+
+}
@@ -0,0 +1,199 @@
+package es.televoip.benchmark;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import es.televoip.model.entities.ClinicalData;
+import es.televoip.model.entities.PatientData;
+import es.televoip.model.enums.ClinicalStatus;
+import es.televoip.model.enums.TimelineSort;
+import es.televoip.projections.PatientSummary;
+import es.televoip.service.PatientSearchService;
+import es.televoip.service.PatientService;
+import es.televoip.util.StringUtils;
+import es.televoip.util.UuidV7;
+
+/**
+ * Consultas de pacientes y de la línea de tiempo sobre H2 embebido con 1k, 100k y 1M de pacientes.
+ * <p>
+ * Los datos se insertan por JDBC al inicio de cada trial, con su texto y sus términos de búsqueda; los resúmenes de
+ * estado se generan después con la misma migración que en producción. Con 1M de pacientes la carga inicial tarda varios minutos.
+ * Cada paciente tiene {@value #RECORDS_PER_PATIENT} registros clínicos, salvo uno con {@value #HEAVY_PATIENT_RECORDS}
+ * que se usa para medir la línea de tiempo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xms2g", "-Xmx4g" })
+public class PatientRepositoryBenchmark {
+
+	private static final int RECORDS_PER_PATIENT = 2;
+	private static final int HEAVY_PATIENT_RECORDS = 5_000;
+	private static final int INSERT_BATCH_SIZE = 10_000;
+	private static final int PAGE_SIZE = 50;
+
+	private static final String[] NAMES = { "José", "María", "Ángel", "Lucía", "Antonio", "Carmen", "Iñaki", "Begoña" };
+	private static final String[] LAST_NAMES = { "García", "Martínez", "López", "Sánchez", "Pérez", "Muñoz", "Gómez" };
+	private static final String[] TITLES = { "Análisis de sangre", "Revisión cardiológica", "Radiografía de tórax",
+			"Consulta general" };
+
+	@Param({ "1000", "100000", "1000000" })
+	private int patients;
+
+	private ConfigurableApplicationContext context;
+	private PatientService patientService;
+
+	private String heavyPatientId;
+	private List<String> firstPageIds;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		context = BenchmarkApplication.start();
+		patientService = context.getBean(PatientService.class);
+
+		JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+		List<String> categoryIds = seedCategories(jdbc);
+		seedPatients(jdbc, categoryIds);
+
+		// Resúmenes de estado con la misma migración que al actualizar una base de datos existente (en H2 no hay Flyway)
+		new ResourceDatabasePopulator(new ClassPathResource("db/migration/V11__patient_status_summary_backfill.sql"))
+				.execute(jdbc.getDataSource());
+
+		firstPageIds = patientService.getPatientsPage("Nombre", null, null, PageRequest.of(0, PAGE_SIZE))
+				.map(PatientData::getId)
+				.getContent();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Slice<PatientSummary> searchPatients() {
+		return patientService.searchPatients("garc", PageRequest.of(0, PAGE_SIZE));
+	}
+
+	@Benchmark
+	public long countSearchPatients() {
+		return patientService.countSearchPatients("garc");
+	}
+
+	@Benchmark
+	public Slice<PatientData> getPatientsPageByName() {
+		return patientService.getPatientsPage("Nombre", null, null, PageRequest.of(0, PAGE_SIZE));
+	}
+
+	@Benchmark
+	public List<PatientData> getPatientsWithStatusSummary() {
+		return patientService.getPatientsWithStatusSummary(firstPageIds);
+	}
+
+	@Benchmark
+	public Slice<ClinicalData> getTimelinePage() {
+		return patientService.getTimelinePage(heavyPatientId, null, Set.of(), "cardio", TimelineSort.PRIORITY,
+				PageRequest.of(0, PAGE_SIZE));
+	}
+
+	@Benchmark
+	public long countTimeline() {
+		return patientService.countTimeline(heavyPatientId, null, Set.of(ClinicalStatus.PENDIENTE.getDisplayName()),
+				null);
+	}
+
+	private List<String> seedCategories(JdbcTemplate jdbc) {
+		List<String> ids = new ArrayList<>();
+		List<Object[]> rows = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			String id = UUID.randomUUID().toString();
+			ids.add(id);
+			rows.add(new Object[] { id, "Categoría " + i, "vaadin:folder", true, i });
+		}
+		jdbc.batchUpdate("INSERT INTO category (id, name, icon, is_active, display_order) VALUES (?, ?, ?, ?, ?)", rows);
+		return ids;
+	}
+
+	private void seedPatients(JdbcTemplate jdbc, List<String> categoryIds) {
+		ClinicalStatus[] statuses = ClinicalStatus.values();
+		LocalDateTime baseDate = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+		List<Object[]> patientRows = new ArrayList<>();
+		List<Object[]> clinicalRows = new ArrayList<>();
+		List<Object[]> termRows = new ArrayList<>();
+
+		for (int i = 0; i < patients; i++) {
+			String patientId = UuidV7.generateString();
+			String name = NAMES[i % NAMES.length];
+			String lastName = LAST_NAMES[(i / NAMES.length) % LAST_NAMES.length] + " " + i;
+			Timestamp created = Timestamp.valueOf(baseDate.plusMinutes(i));
+			String email = "paciente" + i + "@example.com";
+			String phoneNumber = String.valueOf(600_000_000L + i);
+			patientRows.add(new Object[] { patientId, name, lastName, email, phoneNumber, "active", created, created });
+
+			PatientData patient = PatientData.builder().id(patientId).name(name).lastName(lastName).email(email)
+					.phoneNumber(phoneNumber).build();
+			for (String term : PatientSearchService.buildTerms(patient)) {
+				termRows.add(new Object[] { UuidV7.generateString(), patientId, term });
+			}
+
+			int records = i == 0 ? HEAVY_PATIENT_RECORDS : RECORDS_PER_PATIENT;
+			if (i == 0) {
+				heavyPatientId = patientId;
+			}
+			for (int r = 0; r < records; r++) {
+				String clinicalId = UuidV7.generateString();
+				String title = TITLES[(i + r) % TITLES.length] + " " + r;
+				String description = "Paciente con diagnóstico de hipertensión arterial, revisión número " + r;
+				clinicalRows.add(new Object[] { clinicalId, patientId, categoryIds.get((i + r) % categoryIds.size()),
+						title, description, statuses[(i + r) % statuses.length].getDisplayName(),
+						Timestamp.valueOf(baseDate.plusMinutes(r)),
+						StringUtils.normalizeForSearch(title + " " + description) });
+			}
+
+			if (patientRows.size() >= INSERT_BATCH_SIZE) {
+				flush(jdbc, patientRows, clinicalRows, termRows);
+			}
+		}
+		flush(jdbc, patientRows, clinicalRows, termRows);
+	}
+
+	private static void flush(JdbcTemplate jdbc, List<Object[]> patientRows, List<Object[]> clinicalRows,
+			List<Object[]> termRows) {
+		jdbc.batchUpdate("INSERT INTO patient_data (id, name, last_name, email, phone_number, status, created_at, "
+				+ "updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", patientRows);
+		jdbc.batchUpdate("INSERT INTO clinical_data (id, patient_id, category_id, title, description, status, date, "
+				+ "search_text, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)", clinicalRows);
+		jdbc.batchUpdate("INSERT INTO patient_search_term (id, patient_id, term) VALUES (?, ?, ?)", termRows);
+		patientRows.clear();
+		clinicalRows.clear();
+		termRows.clear();
+	}
+
+}
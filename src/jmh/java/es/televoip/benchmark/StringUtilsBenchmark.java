@@ -0,0 +1,61 @@
+package es.televoip.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import es.televoip.util.StringUtils;
+
+/**
+ * Normalización de texto usada en cada búsqueda y en cada registro clínico guardado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringUtilsBenchmark {
+
+	@Param({ "ascii", "accents", "description" })
+	private String input;
+
+	private String text;
+
+	@Setup
+	public void setup() {
+		switch (input) {
+		case "ascii":
+			text = "Analisis de sangre";
+			break;
+		case "accents":
+			text = "Revisión cardiológica de José Ángel Muñoz";
+			break;
+		default:
+			// Descripción típica de un registro clínico (~500 caracteres)
+			text = "Paciente con diagnóstico de hipertensión arterial en tratamiento. ".repeat(8);
+			break;
+		}
+	}
+
+	@Benchmark
+	public String removeAccents() {
+		return StringUtils.removeAccents(text);
+	}
+
+	@Benchmark
+	public String normalizeForSearch() {
+		return StringUtils.normalizeForSearch(text);
+	}
+
+}
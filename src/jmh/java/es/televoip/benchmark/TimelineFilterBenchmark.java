@@ -0,0 +1,131 @@
+package es.televoip.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import es.televoip.model.entities.Category;
+import es.televoip.model.entities.ClinicalData;
+import es.televoip.model.enums.ClinicalStatus;
+import es.televoip.util.StringUtils;
+
+/**
+ * Filtrado y ordenación de la línea de tiempo en memoria, tal como lo hacía {@code PatientlUIService.applyFilters}
+ * antes de pasar a consultas paginadas. Sirve de referencia para comparar con
+ * {@link PatientRepositoryBenchmark#getTimelinePage}. {@link #applyFiltersFolded()} hace lo mismo con el texto
+ * normalizado que cada registro guarda en {@code searchText}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimelineFilterBenchmark {
+
+	@Param({ "100", "1000", "10000" })
+	private int records;
+
+	@Param({ "", "cardio" })
+	private String searchTerm;
+
+	@Param({ "all", "Pendiente" })
+	private String statusFilter;
+
+	private List<ClinicalData> allData;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		ClinicalStatus[] statuses = ClinicalStatus.values();
+		String[] titles = { "Análisis de sangre", "Revisión cardiológica", "Radiografía de tórax", "Consulta general" };
+
+		List<Category> categories = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			categories.add(Category.builder().id("cat-" + i).name("Categoría " + i).displayOrder(i).build());
+		}
+
+		allData = new ArrayList<>(records);
+		for (int i = 0; i < records; i++) {
+			allData.add(ClinicalData.builder()
+					.id("cd-" + i)
+					.category(categories.get(random.nextInt(categories.size())))
+					.title(titles[random.nextInt(titles.length)] + " " + i)
+					.description("Paciente con diagnóstico de hipertensión arterial, revisión número " + i)
+					.status(statuses[random.nextInt(statuses.length)].getDisplayName())
+					.date(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(random.nextInt(500_000)))
+					.build());
+		}
+		allData.forEach(ClinicalData::refreshSearchText);
+	}
+
+	@Benchmark
+	public List<ClinicalData> applyFilters() {
+		String normalizedSearchTerm = StringUtils.removeAccents(searchTerm.toLowerCase());
+
+		return allData.stream().filter(cd -> {
+			boolean matchesStatus = statusFilter.equals("all")
+					|| (cd.getStatus() != null && cd.getStatus().equalsIgnoreCase(statusFilter));
+
+			boolean matchesSearch = searchTerm.isEmpty()
+					|| (cd.getTitle() != null
+							&& StringUtils.removeAccents(cd.getTitle().toLowerCase()).contains(normalizedSearchTerm))
+					|| (cd.getDescription() != null
+							&& StringUtils.removeAccents(cd.getDescription().toLowerCase()).contains(normalizedSearchTerm));
+			return matchesStatus && matchesSearch;
+		}).sorted(Comparator.comparingInt((ClinicalData cd) -> getStatusPriority(cd.getStatus()))
+				.thenComparing(ClinicalData::getDate, Comparator.nullsLast(Comparator.reverseOrder()))
+				.thenComparing(cd -> cd.getCategory().getDisplayOrder()))
+				.collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public List<ClinicalData> applyFiltersFolded() {
+		String normalizedSearchTerm = StringUtils.normalizeForSearch(searchTerm);
+
+		return allData.stream()
+				.filter(cd -> statusFilter.equals("all") || statusFilter.equalsIgnoreCase(cd.getStatus()))
+				.filter(cd -> matchesSearch(cd, normalizedSearchTerm))
+				.sorted(Comparator.comparingInt((ClinicalData cd) -> getStatusPriority(cd.getStatus()))
+						.thenComparing(ClinicalData::getDate, Comparator.nullsLast(Comparator.reverseOrder()))
+						.thenComparing(cd -> cd.getCategory().getDisplayOrder()))
+				.collect(Collectors.toList());
+	}
+
+	// Compara con el texto normalizado guardado en el registro en lugar de normalizar título y descripción cada vez
+	private static boolean matchesSearch(ClinicalData data, String normalizedTerm) {
+		return normalizedTerm.isEmpty() || data.getSearchText().contains(normalizedTerm);
+	}
+
+	private static int getStatusPriority(String status) {
+		switch (status) {
+		case "Urgente":
+			return 0;
+		case "Pendiente":
+			return 1;
+		case "En curso":
+			return 2;
+		case "Completado":
+			return 3;
+		default:
+			return 4;
+		}
+	}
+
+}
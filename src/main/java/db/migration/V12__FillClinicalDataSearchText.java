@@ -0,0 +1,58 @@
+package db.migration;
+
+import java.util.List;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import es.televoip.util.StringUtils;
+import es.televoip.util.UuidV7;
+
+/**
+ * Rellena {@code clinical_data.search_text} (añadida en V1_3) en los registros creados antes de existir la columna,
+ * con el mismo texto normalizado que calcula {@code ClinicalData#refreshSearchText()}. Los registros nuevos ya lo
+ * guardan al crearse o modificarse, así que basta con hacerlo una vez.
+ * <p>
+ * Igual que V5, recorre la tabla por lotes ordenados por ID fuera de transacción; si se interrumpe, puede repetirse.
+ * La columna {@code version} no cambia: las ediciones abiertas siguen siendo válidas.
+ */
+public class V12__FillClinicalDataSearchText extends BaseJavaMigration {
+	private static final Logger logger = LoggerFactory.getLogger(V12__FillClinicalDataSearchText.class);
+
+	private static final int BATCH_SIZE = 5_000;
+
+	@Override
+	public boolean canExecuteInTransaction() {
+		return false;
+	}
+
+	@Override
+	public void migrate(Context context) {
+		JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+
+		String lastId = UuidV7.MIN;
+		long filled = 0;
+		List<Object[]> batch;
+		do {
+			batch = jdbc.query(
+					"SELECT id, title, description FROM clinical_data WHERE id > ? AND search_text IS NULL "
+							+ "ORDER BY id ASC LIMIT ?",
+					(rs, rowNum) -> new Object[] {
+							StringUtils.normalizeForSearch(rs.getString("title"), rs.getString("description")),
+							rs.getString("id") },
+					lastId, BATCH_SIZE);
+			if (!batch.isEmpty()) {
+				jdbc.batchUpdate("UPDATE clinical_data SET search_text = ? WHERE id = ?", batch);
+				lastId = (String) batch.get(batch.size() - 1)[1];
+				filled += batch.size();
+			}
+		} while (batch.size() == BATCH_SIZE);
+
+		logger.info("Texto de búsqueda generado para {} datos clínicos", filled);
+	}
+
+}
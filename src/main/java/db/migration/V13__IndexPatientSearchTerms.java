@@ -0,0 +1,72 @@
+package db.migration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import es.televoip.model.entities.PatientData;
+import es.televoip.service.PatientSearchService;
+import es.televoip.util.UuidV7;
+
+/**
+ * Genera los términos de búsqueda ({@code patient_search_term}, creada en V1_1) de los pacientes creados antes de
+ * existir la tabla, con los mismos términos que calcula {@link PatientSearchService}. Los pacientes nuevos se indexan
+ * al guardarse, así que basta con hacerlo una vez.
+ * <p>
+ * Igual que V5, recorre los pacientes por lotes ordenados por ID fuera de transacción; si se interrumpe, puede
+ * repetirse: solo procesa los pacientes que aún no tienen términos.
+ */
+public class V13__IndexPatientSearchTerms extends BaseJavaMigration {
+	private static final Logger logger = LoggerFactory.getLogger(V13__IndexPatientSearchTerms.class);
+
+	private static final int BATCH_SIZE = 1_000;
+
+	@Override
+	public boolean canExecuteInTransaction() {
+		return false;
+	}
+
+	@Override
+	public void migrate(Context context) {
+		JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+
+		String lastId = UuidV7.MIN;
+		long indexed = 0;
+		List<PatientData> batch;
+		do {
+			batch = jdbc.query(
+					"SELECT id, name, last_name, email, phone_number FROM patient_data p WHERE id > ? "
+							+ "AND NOT EXISTS (SELECT 1 FROM patient_search_term t WHERE t.patient_id = p.id) "
+							+ "ORDER BY id ASC LIMIT ?",
+					(rs, rowNum) -> PatientData.builder()
+							.id(rs.getString("id"))
+							.name(rs.getString("name"))
+							.lastName(rs.getString("last_name"))
+							.email(rs.getString("email"))
+							.phoneNumber(rs.getString("phone_number"))
+							.build(),
+					lastId, BATCH_SIZE);
+
+			List<Object[]> terms = new ArrayList<>();
+			for (PatientData patient : batch) {
+				for (String term : PatientSearchService.buildTerms(patient)) {
+					terms.add(new Object[] { UuidV7.generateString(), patient.getId(), term });
+				}
+			}
+			if (!batch.isEmpty()) {
+				jdbc.batchUpdate("INSERT INTO patient_search_term (id, patient_id, term) VALUES (?, ?, ?)", terms);
+				lastId = batch.get(batch.size() - 1).getId();
+				indexed += batch.size();
+			}
+		} while (batch.size() == BATCH_SIZE);
+
+		logger.info("Términos de búsqueda generados para {} pacientes", indexed);
+	}
+
+}
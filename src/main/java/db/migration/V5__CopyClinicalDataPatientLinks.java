@@ -0,0 +1,54 @@
+package db.migration;
+
+import java.util.List;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * Paso 2 de 3 para sustituir la tabla de unión {@code patient_clinical_data} por la columna
+ * {@code clinical_data.patient_id} (ver V4 y V6).
+ * <p>
+ * Copia el paciente de cada fila de la tabla de unión recorriéndola por lotes ordenados por
+ * {@code clinical_data_id}, en lugar de un único {@code UPDATE ... JOIN} sobre toda la tabla: cada lote lee y actualiza
+ * un número acotado de filas, así que la memoria y el tamaño de cada sentencia no dependen del volumen de datos. Se
+ * ejecuta fuera de transacción para confirmar cada lote por separado; si se interrumpe, puede repetirse sin problema.
+ */
+public class V5__CopyClinicalDataPatientLinks extends BaseJavaMigration {
+	private static final Logger logger = LoggerFactory.getLogger(V5__CopyClinicalDataPatientLinks.class);
+
+	private static final int BATCH_SIZE = 5_000;
+
+	@Override
+	public boolean canExecuteInTransaction() {
+		return false;
+	}
+
+	@Override
+	public void migrate(Context context) {
+		JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+
+		String lastId = "";
+		long copied = 0;
+		List<Object[]> batch;
+		do {
+			batch = jdbc.query(
+					"SELECT clinical_data_id, patient_id FROM patient_clinical_data WHERE clinical_data_id > ? "
+							+ "ORDER BY clinical_data_id ASC LIMIT ?",
+					(rs, rowNum) -> new Object[] { rs.getString("patient_id"), rs.getString("clinical_data_id") },
+					lastId, BATCH_SIZE);
+			if (!batch.isEmpty()) {
+				jdbc.batchUpdate("UPDATE clinical_data SET patient_id = ? WHERE id = ?", batch);
+				lastId = (String) batch.get(batch.size() - 1)[1];
+				copied += batch.size();
+			}
+		} while (batch.size() == BATCH_SIZE);
+
+		logger.info("Paciente copiado en {} datos clínicos", copied);
+	}
+
+}
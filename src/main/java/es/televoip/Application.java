@@ -1,6 +1,7 @@
 package es.televoip;
 
 import com.vaadin.flow.component.page.AppShellConfigurator;
+import com.vaadin.flow.component.page.Push;
 import com.vaadin.flow.theme.Theme;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -13,6 +14,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  *
  */
 @SpringBootApplication
+@Push // Necesario para enviar al navegador los resultados de las búsquedas en segundo plano
 @Theme(value = "vaadin-whatsaoo-ia2")
 public class Application implements AppShellConfigurator {
 
@@ -1,15 +1,25 @@
 package es.televoip.config;
 
-import com.vaadin.flow.i18n.I18NProvider;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class AppConfig {
-    @Bean
-    public I18NProvider i18nProvider() {
-        return new CustomI18NProvider();
+
+    // Búsquedas de la línea de tiempo que pueden ejecutarse a la vez en toda la aplicación
+    private static final int TIMELINE_SEARCH_THREADS = 8;
+
+    /**
+     * Ejecutor acotado para las búsquedas de la línea de tiempo: un número fijo de hilos virtuales, de modo que muchos
+     * operadores escribiendo a la vez no saturen el pool de conexiones.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService timelineSearchExecutor() {
+        return Executors.newFixedThreadPool(TIMELINE_SEARCH_THREADS,
+                Thread.ofVirtual().name("timeline-search-", 0).factory());
     }
     
 }
@@ -1,21 +1,61 @@
 package es.televoip.config;
 
 import com.vaadin.flow.i18n.I18NProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.io.Serializable;
 import java.text.MessageFormat;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Proveedor de traducciones de la aplicación.
+ * <p>
+ * Las traducciones se guardan en una caché por (idioma, clave): cada texto se busca en el {@link ResourceBundle} una
+ * sola vez y los textos con parámetros se analizan una sola vez como {@link MessageFormat}. {@link #reload()} vacía la
+ * caché para recoger cambios en los ficheros {@code messages*.properties}.
+ */
 @Component
 public class CustomI18NProvider implements I18NProvider {
-	
+
     private static final long serialVersionUID = 1L;
-    
+    private static final Logger logger = LoggerFactory.getLogger(CustomI18NProvider.class);
+
     public static final String BUNDLE_PREFIX = "messages";
 
+    private final Map<Locale, Map<String, Translation>> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Texto traducido de una clave, con su {@link MessageFormat} ya analizado la primera vez que se usa con parámetros.
+     * El patrón es null si la clave no existe.
+     */
+    private static final class Translation implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String pattern;
+        private final Locale locale;
+        private MessageFormat format;
+
+        private Translation(String pattern, Locale locale) {
+            this.pattern = pattern;
+            this.locale = locale;
+        }
+
+        // MessageFormat no es thread-safe: se sincroniza sobre la traducción, que es pequeña y de vida larga
+        private synchronized String format(Object... params) {
+            if (format == null) {
+                format = new MessageFormat(pattern, locale);
+            }
+            return format.format(params);
+        }
+    }
+
     @Override
     public List<Locale> getProvidedLocales() {
         return Arrays.asList(
@@ -33,17 +73,60 @@ public class CustomI18NProvider implements I18NProvider {
 
     @Override
     public String getTranslation(String key, Locale locale, Object... params) {
-        ResourceBundle bundle = getResourceBundle(locale);
-        if (bundle.containsKey(key)) {
-            String value = bundle.getString(key);
-            if (params != null && params.length > 0) {
-                return MessageFormat.format(value, params);
-            }
-            return value;
-        } else {
+        Translation translation = getCached(key, locale);
+        if (translation.pattern == null) {
             // Si la clave no existe, devuelve la clave misma o un valor por defecto
             return key;
         }
+        if (params != null && params.length > 0) {
+            return translation.format(params);
+        }
+        return translation.pattern;
     }
-    
+
+    /**
+     * Traduce una clave aplicando siempre {@link MessageFormat}, aunque no haya parámetros (p. ej. para convertir
+     * {@code ''} en una comilla).
+     *
+     * @param key    Clave del texto.
+     * @param locale Idioma.
+     * @param params Parámetros del texto.
+     * @return Texto traducido y formateado, o la clave si no existe.
+     */
+    public String format(String key, Locale locale, Object... params) {
+        Translation translation = getCached(key, locale);
+        return translation.pattern == null ? key : translation.format(params);
+    }
+
+    /**
+     * Indica si existe una traducción para la clave en el idioma indicado.
+     */
+    public boolean containsKey(String key, Locale locale) {
+        return getCached(key, locale).pattern != null;
+    }
+
+    /**
+     * Vacía la caché de traducciones y la de {@link ResourceBundle}, de modo que las siguientes traducciones se leen de
+     * nuevo de los ficheros.
+     */
+    public void reload() {
+        ResourceBundle.clearCache();
+        cache.clear();
+        logger.info("Traducciones recargadas");
+    }
+
+    private Translation getCached(String key, Locale locale) {
+        return cache.computeIfAbsent(locale, l -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key, k -> load(k, locale));
+    }
+
+    private Translation load(String key, Locale locale) {
+        ResourceBundle bundle = getResourceBundle(locale);
+        if (bundle.containsKey(key)) {
+            return new Translation(bundle.getString(key), locale);
+        }
+        logger.warn("Missing resource key: {} ({}). Using key as default.", key, locale);
+        return new Translation(null, locale);
+    }
+
 }
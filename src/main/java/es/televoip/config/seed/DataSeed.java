@@ -0,0 +1,32 @@
+package es.televoip.config.seed;
+
+/**
+ * Semilla de datos que {@link DataSeedRunner} aplica una sola vez por versión.
+ * <p>
+ * Para cambiar los datos de una semilla ya aplicada hay que subir su versión; si cambia el contenido sin cambiar la
+ * versión, el checksum deja de coincidir y el arranque lo avisa en el log sin volver a aplicarla.
+ */
+public interface DataSeed {
+
+	/**
+	 * Identificador estable de la semilla.
+	 */
+	String getId();
+
+	/**
+	 * Versión de la semilla. Se aplica de nuevo cuando es mayor que la registrada.
+	 */
+	int getVersion();
+
+	/**
+	 * Contenido de la semilla en forma canónica; su SHA-256 es el checksum registrado.
+	 */
+	String getContent();
+
+	/**
+	 * Aplica la semilla. Debe ser idempotente: puede ejecutarse sobre una base de datos que ya tiene los datos (por
+	 * ejemplo, creada antes de existir el registro de semillas).
+	 */
+	void apply();
+
+}
@@ -0,0 +1,88 @@
+package es.televoip.config.seed;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import es.televoip.model.entities.SeedHistory;
+import es.televoip.repository.SeedHistoryRepository;
+
+/**
+ * Aplica al arrancar las {@link DataSeed} pendientes, cada una en su propia transacción, y las registra en la tabla
+ * {@code seed_history}.
+ * <p>
+ * Una semilla ya aplicada en su versión actual solo cuesta una consulta por clave primaria. El esquema de la base de
+ * datos no es cosa de este componente: lo crean las migraciones de Flyway ({@code db/migration}).
+ */
+@Component
+public class DataSeedRunner implements ApplicationRunner {
+	private static final Logger logger = LoggerFactory.getLogger(DataSeedRunner.class);
+
+	private final List<DataSeed> seeds;
+	private final SeedHistoryRepository seedHistoryRepository;
+	private final TransactionTemplate transactionTemplate;
+
+	public DataSeedRunner(List<DataSeed> seeds, SeedHistoryRepository seedHistoryRepository,
+			PlatformTransactionManager transactionManager) {
+		this.seeds = seeds;
+		this.seedHistoryRepository = seedHistoryRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		for (DataSeed seed : seeds) {
+			try {
+				transactionTemplate.executeWithoutResult(status -> runSeed(seed));
+			} catch (DataIntegrityViolationException e) {
+				// Otro nodo ha aplicado la misma semilla a la vez; sus datos y su registro ya están guardados
+				logger.info("Semilla '{}' aplicada por otro nodo", seed.getId());
+			}
+		}
+	}
+
+	private void runSeed(DataSeed seed) {
+		String checksum = checksum(seed.getContent());
+		SeedHistory history = seedHistoryRepository.findById(seed.getId()).orElse(null);
+
+		if (history != null && history.getVersion() >= seed.getVersion()) {
+			if (history.getVersion() == seed.getVersion() && !history.getChecksum().equals(checksum)) {
+				logger.warn("La semilla '{}' ha cambiado sin subir su versión ({}); no se vuelve a aplicar",
+						seed.getId(), seed.getVersion());
+			}
+			return;
+		}
+
+		seed.apply();
+		if (history == null) {
+			history = SeedHistory.builder().seedId(seed.getId()).build();
+		}
+		history.setVersion(seed.getVersion());
+		history.setChecksum(checksum);
+		history.setAppliedAt(LocalDateTime.now());
+		seedHistoryRepository.saveAndFlush(history);
+		logger.info("Semilla '{}' aplicada (versión {})", seed.getId(), seed.getVersion());
+	}
+
+	private static String checksum(String content) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException("SHA-256 no disponible", e);
+		}
+	}
+
+}
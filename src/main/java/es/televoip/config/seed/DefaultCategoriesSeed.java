@@ -0,0 +1,238 @@
+package es.televoip.config.seed;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.vaadin.flow.component.icon.VaadinIcon;
+
+import es.televoip.model.entities.Category;
+import es.televoip.model.entities.SubCategory;
+import es.televoip.repository.CategoryRepository;
+import es.televoip.service.CategoryService;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Categorías predeterminadas que se crean en una base de datos nueva. Antes se insertaban desde el constructor de
+ * {@link CategoryService}, en cada arranque y durante la creación del contexto.
+ */
+@Component
+@Order(1)
+@Slf4j
+public class DefaultCategoriesSeed implements DataSeed {
+
+    private final CategoryRepository categoryRepository;
+    private final CategoryService categoryService;
+
+    public DefaultCategoriesSeed(CategoryRepository categoryRepository, CategoryService categoryService) {
+        this.categoryRepository = categoryRepository;
+        this.categoryService = categoryService;
+    }
+
+    @Override
+    public String getId() {
+        return "default-categories";
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @Override
+    public String getContent() {
+        StringBuilder content = new StringBuilder();
+        for (Category category : defaultCategories()) {
+            content.append(category.getId()).append('|').append(category.getName()).append('|')
+                .append(category.getIcon()).append('|').append(category.isActive()).append('|')
+                .append(category.getDisplayOrder()).append('\n');
+            for (SubCategory sub : category.getSubCategories()) {
+                content.append("  ").append(sub.getId()).append('|').append(sub.getName()).append('|')
+                    .append(sub.isActive()).append('|').append(sub.isRequired()).append('|')
+                    .append(sub.getDisplayOrder()).append('\n');
+            }
+        }
+        return content.toString();
+    }
+
+    /**
+     * Inserta las categorías solo si no hay ninguna, igual que antes: en una base de datos en uso no se vuelven a crear
+     * las categorías que el usuario haya eliminado.
+     */
+    @Override
+    public void apply() {
+        if (categoryRepository.count() == 0) {
+            categoryRepository.saveAll(defaultCategories());
+            categoryService.invalidateCache();
+            log.info("Categorías predeterminadas inicializadas.");
+        }
+    }
+
+    private static List<Category> defaultCategories() {
+        // Aquí debes crear y devolver la lista de categorías predeterminadas
+        /// 1. Citas y Agenda
+   	 Category appointments = Category.builder()
+             .id("appointments")
+             .name("Citas")
+             .icon(VaadinIcon.CALENDAR.name())
+             .isActive(true)
+             .subCategories(Arrays.asList(
+                 SubCategory.builder()
+                     .id("view")
+                     .name("Ver/Solicitar")
+                     .isActive(true)
+                     .isRequired(false)
+                     .displayOrder(1)
+                     .build(),
+                 SubCategory.builder()
+                     .id("modify")
+                     .name("Modificar/Cancelar")
+                     .isActive(true)
+                     .isRequired(false)
+                     .displayOrder(2)
+                     .build(),
+                 SubCategory.builder()
+                     .id("reminders")
+                     .name("Recordatorios")
+                     .isActive(true)
+                     .isRequired(false)
+                     .displayOrder(3)
+                     .build()
+             ))
+             .displayOrder(1)
+             .build();
+
+         // 2. Tratamientos
+         Category treatments = Category.builder()
+             .id("treatments")
+             .name("Tratamientos")
+             .icon(VaadinIcon.DOCTOR.name())
+             .isActive(true)
+             .subCategories(Arrays.asList(
+                 SubCategory.builder()
+                     .id("active")
+                     .name("Activos")
+                     .isActive(true)
+                     .isRequired(false)
+                     .displayOrder(1)
+                     .build(),
+                 SubCategory.builder()
+                     .id("follow")
+                     .name("Seguimiento")
+                     .isActive(true)
+                     .isRequired(false)
+                     .displayOrder(2)
+                     .build(),
+                 SubCategory.builder()
+                     .id("history")
+                     .name("Historial")
+                     .isActive(true)
+                     .isRequired(false)
+                     .displayOrder(3)
+                     .build()
+             ))
+             .displayOrder(2)
+             .build();
+
+         // 3. Pagos
+         Category payments = Category.builder()
+             .id("payments")
+             .name("Pagos")
+             .icon(VaadinIcon.EURO.name())
+             .isActive(true)
+             .subCategories(Arrays.asList(
+                 SubCategory.builder()
+                     .id("pending")
+                     .name("Facturas Pendientes")
+                     .isActive(true)
+                     .isRequired(false)
+                     .displayOrder(1)
+                     .build(),
+                 SubCategory.builder()
+                     .id("quotes")
+                     .name("Presupuestos")
+                     .isActive(true)
+                     .isRequired(false)
+                     .displayOrder(2)
+                     .build(),
+                 SubCategory.builder()
+                     .id("history")
+                     .name("Historial")
+                     .isActive(true)
+                     .isRequired(false)
+                     .displayOrder(3)
+                     .build()
+             ))
+             .displayOrder(3)
+             .build();
+         
+         // 4. Documentos
+         Category documents = Category.builder()
+             .id("documents")
+             .name("Documentos")
+             .icon(VaadinIcon.FILE_TEXT.name())
+             .isActive(true)
+             .subCategories(Arrays.asList(
+                 SubCategory.builder()
+                     .id("upload")
+                     .name("Subir")
+                     .isActive(true)
+                     .isRequired(false)
+                     .displayOrder(1)
+                     .build(),
+                 SubCategory.builder()
+                     .id("view")
+                     .name("Ver")
+                     .isActive(true)
+                     .isRequired(false)
+                     .displayOrder(2)
+                     .build(),
+                 SubCategory.builder()
+                     .id("share")
+                     .name("Compartir")
+                     .isActive(true)
+                     .isRequired(false)
+                     .displayOrder(3)
+                     .build()
+             ))
+             .displayOrder(4)
+             .build();
+         
+         // 5. Comunicaciones
+         Category communications = Category.builder()
+             .id("communications")
+             .name("Comunicaciones")
+             .icon(VaadinIcon.COMMENT.name())
+             .isActive(true)
+             .subCategories(Arrays.asList(
+                 SubCategory.builder()
+                     .id("messages")
+                     .name("Mensajes")
+                     .isActive(true)
+                     .isRequired(false)
+                     .displayOrder(1)
+                     .build(),
+                 SubCategory.builder()
+                     .id("notifications")
+                     .name("Notificaciones")
+                     .isActive(true)
+                     .isRequired(false)
+                     .displayOrder(2)
+                     .build(),
+                 SubCategory.builder()
+                     .id("feedback")
+                     .name("Retroalimentación")
+                     .isActive(true)
+                     .isRequired(false)
+                     .displayOrder(3)
+                     .build()
+             ))
+             .displayOrder(5)
+             .build();
+
+        return List.of(appointments, treatments, payments, documents,  communications);
+    }
+
+}
@@ -0,0 +1,25 @@
+package es.televoip.listener;
+
+/**
+ * Evento que publica {@code CategoryService} tras confirmar un cambio en las categorías de este nodo.
+ * <p>
+ * Es el punto de enganche para mantener coherentes varios nodos: un componente de clúster (Redis pub/sub, JMS, ...)
+ * puede escuchar este evento, difundirlo y llamar en los demás nodos a {@code CategoryService.invalidateCache()}, que
+ * no vuelve a publicarlo.
+ */
+public class CategoriesChangedEvent {
+
+	private final long version;
+
+	public CategoriesChangedEvent(long version) {
+		this.version = version;
+	}
+
+	/**
+	 * Versión de las categorías en este nodo tras el cambio.
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+}
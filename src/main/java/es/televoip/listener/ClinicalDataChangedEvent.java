@@ -0,0 +1,62 @@
+package es.televoip.listener;
+
+import es.televoip.model.entities.PatientData;
+
+/**
+ * Evento que publica {@code PatientService} al añadir, modificar o eliminar datos clínicos de un paciente. Se entrega a
+ * las pantallas abiertas cuando se confirma la transacción (ver {@code ClinicalDataBroadcaster}), que antes de
+ * repartirlo le añade el paciente ya actualizado para que ninguna pantalla tenga que volver a consultarlo.
+ */
+public class ClinicalDataChangedEvent {
+
+	public enum Type {
+		ADDED, UPDATED, REMOVED
+	}
+
+	private final Type type;
+	private final String patientId;
+	private final PatientData patient;
+
+	public ClinicalDataChangedEvent(Type type, String patientId) {
+		this(type, patientId, null);
+	}
+
+	private ClinicalDataChangedEvent(Type type, String patientId, PatientData patient) {
+		this.type = type;
+		this.patientId = patientId;
+		this.patient = patient;
+	}
+
+	/**
+	 * Devuelve una copia del evento con el estado del paciente tras el cambio.
+	 *
+	 * @param patient Paciente con {@code statusSummary} relleno, o null si ya no existe.
+	 * @return Evento con el paciente.
+	 */
+	public ClinicalDataChangedEvent withPatient(PatientData patient) {
+		return new ClinicalDataChangedEvent(type, patientId, patient);
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public String getPatientId() {
+		return patientId;
+	}
+
+	/**
+	 * Paciente tras el cambio, compartido por todas las pantallas: solo debe leerse.
+	 *
+	 * @return Paciente con su resumen de estados, o null si no se ha cargado o ya no existe.
+	 */
+	public PatientData getPatient() {
+		return patient;
+	}
+
+	@Override
+	public String toString() {
+		return "ClinicalDataChangedEvent{" + "type=" + type + ", patientId='" + patientId + '\'' + '}';
+	}
+
+}
@@ -0,0 +1,88 @@
+package es.televoip.model;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.TreeMap;
+
+import es.televoip.util.UuidV7;
+
+/**
+ * Posiciones ya recorridas de una lista de pacientes ordenada por categoría (panel lateral).
+ * <p>
+ * Para cada posición a la que se ha llegado guarda la clave (categoría, ID de paciente) de la fila anterior, de modo
+ * que la página siguiente se pide con {@code WHERE clave > :anterior} sobre el índice en lugar de con OFFSET, que
+ * recorre todas las filas previas. Pertenece a una sola lista y hay que vaciarlo con {@link #clear()} cuando cambian su
+ * ordenación o sus filtros.
+ */
+public class CategorySortCursor implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Clave de una fila de la lista: la anterior a la primera fila es {@link #FIRST}.
+	 */
+	public static final class Key implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		public static final Key FIRST = new Key("", UuidV7.MIN);
+
+		private final String categoryName;
+		private final String patientId;
+
+		public Key(String categoryName, String patientId) {
+			this.categoryName = categoryName;
+			this.patientId = patientId;
+		}
+
+		public String getCategoryName() {
+			return categoryName;
+		}
+
+		public String getPatientId() {
+			return patientId;
+		}
+	}
+
+	// Posición → clave de la fila anterior a esa posición
+	private final TreeMap<Integer, Key> keys = new TreeMap<>();
+
+	public CategorySortCursor() {
+		keys.put(0, Key.FIRST);
+	}
+
+	/**
+	 * Devuelve la posición conocida más cercana por debajo de {@code offset} desde la que se llega a él saltando
+	 * páginas enteras de {@code pageSize} filas.
+	 *
+	 * @param offset   Posición de la primera fila pedida.
+	 * @param pageSize Tamaño de página.
+	 * @return Posición y clave de la fila anterior a ella; como mínimo, el principio de la lista.
+	 */
+	public Map.Entry<Integer, Key> floor(int offset, int pageSize) {
+		for (Map.Entry<Integer, Key> entry = keys.floorEntry(offset); entry != null; entry = keys
+				.lowerEntry(entry.getKey())) {
+			if ((offset - entry.getKey()) % pageSize == 0) {
+				return entry;
+			}
+		}
+		return Map.entry(0, Key.FIRST);
+	}
+
+	/**
+	 * Guarda la clave de la fila anterior a una posición.
+	 *
+	 * @param offset Posición.
+	 * @param key    Clave de la fila {@code offset - 1}.
+	 */
+	public void record(int offset, Key key) {
+		keys.put(offset, key);
+	}
+
+	/**
+	 * Olvida las posiciones recorridas.
+	 */
+	public void clear() {
+		keys.clear();
+		keys.put(0, Key.FIRST);
+	}
+
+}
@@ -0,0 +1,57 @@
+package es.televoip.model;
+
+import java.io.Serializable;
+
+import es.televoip.model.entities.PatientData;
+
+/**
+ * Resumen inmutable del paciente seleccionado en una pantalla: solo el ID y los datos que se muestran en cabeceras y
+ * diálogos. No guarda la entidad ni sus datos clínicos.
+ */
+public class SelectedPatient implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private final String id;
+	private final String name;
+	private final String lastName;
+	private final String phoneNumber;
+
+	public SelectedPatient(String id, String name, String lastName, String phoneNumber) {
+		this.id = id;
+		this.name = name;
+		this.lastName = lastName;
+		this.phoneNumber = phoneNumber;
+	}
+
+	/**
+	 * Crea el resumen a partir de un paciente ya cargado (por ejemplo, la fila del panel lateral).
+	 *
+	 * @param patient Paciente seleccionado.
+	 * @return Resumen del paciente.
+	 */
+	public static SelectedPatient of(PatientData patient) {
+		return new SelectedPatient(patient.getId(), patient.getName(), patient.getLastName(), patient.getPhoneNumber());
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getLastName() {
+		return lastName;
+	}
+
+	public String getPhoneNumber() {
+		return phoneNumber;
+	}
+
+	@Override
+	public String toString() {
+		return "SelectedPatient{" + "id='" + id + '\'' + ", name='" + name + '\'' + '}';
+	}
+
+}
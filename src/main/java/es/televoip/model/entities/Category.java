@@ -2,6 +2,8 @@ package es.televoip.model.entities;
 
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -14,6 +16,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@BatchSize(size = 50) // Los proxies de categoría de los datos clínicos se cargan por lotes
 @Data
 @Builder(toBuilder = true) // Habilitar toBuilder()
 @NoArgsConstructor // Constructor sin argumentos
@@ -29,6 +32,7 @@ public class Category {
 
 	private boolean isActive;
 
+	@BatchSize(size = 50)
 	@OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
    @JoinColumn(name = "category_id", nullable = false)
    private List<SubCategory> subCategories;
@@ -9,19 +9,30 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
-import java.util.UUID;
+
+import es.televoip.util.StringUtils;
+import es.televoip.util.UuidV7;
 
 /**
  * Entidad que representa datos clínicos asociados a un paciente.
  */
 @Entity
-@Table(name = "clinical_data")
+@Table(name = "clinical_data", indexes = {
+		// Línea de tiempo de un paciente: por fecha y filtrada por categoría + estado
+		@Index(name = "idx_clinical_data_patient_date", columnList = "patient_id, date"),
+		@Index(name = "idx_clinical_data_patient_category_status", columnList = "patient_id, category_id, status"),
+		// Filtros de la línea de tiempo: categoría + estado, ordenados por fecha
+		@Index(name = "idx_clinical_data_category_status_date", columnList = "category_id, status, date"),
+		@Index(name = "idx_clinical_data_status_date", columnList = "status, date") })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -30,12 +41,20 @@ import java.util.UUID;
 public class ClinicalData {
 
 	/**
-	 * Identificador único del registro clínico.
+	 * Identificador único del registro clínico: UUIDv7 en su forma de texto, guardado en una columna {@code UUID} de 16
+	 * bytes.
 	 */
 	@Id
-	@Column(name = "id", length = 36, updatable = false, nullable = false)
+	@Column(name = "id", length = 36, updatable = false, nullable = false, columnDefinition = "UUID")
 	private String id;
 
+	/**
+	 * Paciente al que pertenece el registro.
+	 */
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "patient_id", nullable = false, columnDefinition = "UUID")
+	private PatientData patient;
+
 	/**
 	 * Categoría del registro clínico.
 	 */
@@ -69,6 +88,21 @@ public class ClinicalData {
 	 */
 	@Column(name = "date", nullable = false)
 	private LocalDateTime date;
+
+	/**
+	 * Título y descripción normalizados (minúsculas, sin acentos) para filtrar la línea de tiempo en la base de datos.
+	 * Se recalcula al insertar y al actualizar el registro.
+	 */
+	@Column(name = "search_text", columnDefinition = "TEXT")
+	private String searchText;
+
+	/**
+	 * Versión para el bloqueo optimista: cada modificación la incrementa y solo se aplica si el registro sigue en la
+	 * versión que vio el operador. Es null en los registros aún no guardados.
+	 */
+	@Version
+	@Column(name = "version", nullable = false)
+	private Long version;
 			
 	@Override
    public String toString() {
@@ -85,11 +119,24 @@ public class ClinicalData {
 	@PrePersist
 	protected void onCreate() {
 		if (this.id == null) {
-			this.id = UUID.randomUUID().toString();
+			this.id = UuidV7.generateString();
 		}
 		if (this.date == null) {
 			this.date = LocalDateTime.now();
 		}
+		refreshSearchText();
+	}
+
+	@PreUpdate
+	protected void onUpdate() {
+		refreshSearchText();
+	}
+
+	/**
+	 * Recalcula {@link #searchText} a partir del título y la descripción actuales.
+	 */
+	public void refreshSearchText() {
+		this.searchText = StringUtils.normalizeForSearch(title, description);
 	}
 
 }
@@ -8,25 +8,49 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.Locale;
+
+import org.hibernate.annotations.BatchSize;
+
+import es.televoip.util.UuidV7;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
-import jakarta.persistence.JoinTable;
+import jakarta.persistence.Index;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
-import jakarta.persistence.JoinColumn;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 
 /**
  * Entidad que representa a un paciente en el sistema.
+ * <p>
+ * Cada pantalla carga el paciente con su propio perfil de carga (entity graph) en lugar de JOIN FETCH genéricos:
+ * <ul>
+ * <li>{@link #GRAPH_SUMMARY}: solo las columnas del paciente (panel lateral). Los datos clínicos se cargan por lotes
+ * gracias a {@code @BatchSize} si se necesitan.</li>
+ * <li>{@link #GRAPH_TIMELINE}: el paciente con sus datos clínicos y la categoría de cada uno (línea de tiempo).</li>
+ * <li>{@link #GRAPH_ADMIN}: solo las columnas del paciente (grid de administración).</li>
+ * </ul>
  */
 @Entity
+@Table(name = "patient_data", indexes = {
+		// Panel lateral filtrado por estado, ordenado por nombre
+		@Index(name = "idx_patient_data_status_name", columnList = "status, name, id") })
+@NamedEntityGraph(name = PatientData.GRAPH_SUMMARY)
+@NamedEntityGraph(name = PatientData.GRAPH_ADMIN)
+@NamedEntityGraph(name = PatientData.GRAPH_TIMELINE,
+		attributeNodes = @NamedAttributeNode(value = "clinicalDataList", subgraph = "clinicalData.category"),
+		subgraphs = @NamedSubgraph(name = "clinicalData.category", attributeNodes = @NamedAttributeNode("category")))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -34,8 +58,15 @@ import jakarta.validation.constraints.NotBlank;
 @Builder
 public class PatientData {
 
+	public static final String GRAPH_SUMMARY = "PatientData.summary";
+	public static final String GRAPH_TIMELINE = "PatientData.timeline";
+	public static final String GRAPH_ADMIN = "PatientData.admin";
+
+	/**
+	 * UUIDv7 en su forma de texto, guardado en una columna {@code UUID} de 16 bytes (ver {@link UuidV7}).
+	 */
 	@Id
-	@Column(name = "id", length = 36)
+	@Column(name = "id", length = 36, columnDefinition = "UUID")
 	private String id;
 
 	@NotBlank(message = "El nombre es obligatorio")
@@ -63,11 +94,14 @@ public class PatientData {
 	@Column(name = "address")
 	private String address;
 
+	/**
+	 * Datos clínicos del paciente. La relación la mantiene {@link ClinicalData#getPatient()} (columna
+	 * {@code clinical_data.patient_id}): al añadir un dato hay que asignarle el paciente, p. ej. con
+	 * {@link #addClinicalData(ClinicalData)}.
+	 */
 	@Builder.Default
-	@OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
-   @JoinTable(name = "patient_clinical_data",
-       		  joinColumns = @JoinColumn(name = "patient_id"),
-       		  inverseJoinColumns = @JoinColumn(name = "clinical_data_id"))
+	@BatchSize(size = 50) // Inicializa en una sola consulta las colecciones de una página de pacientes
+	@OneToMany(mappedBy = "patient", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
    private List<ClinicalData> clinicalDataList = new ArrayList<>();
 	
 	@Builder.Default
@@ -80,17 +114,55 @@ public class PatientData {
 	@Column(name = "updated_at")
 	private LocalDateTime updatedAt;
 
+	/**
+	 * Contadores de estado clínico para el panel lateral. No se persiste: lo rellena {@code PatientService} a partir de
+	 * la tabla {@code patient_status_summary}.
+	 */
+	@Transient
+	private PatientStatusSummary statusSummary;
+
 	@PrePersist
 	protected void onCreate() {
 		if (this.id == null) {
-			this.id = UUID.randomUUID().toString();
+			this.id = UuidV7.generateString();
 		}
 		this.createdAt = LocalDateTime.now();
+		this.status = canonicalStatus(status);
 	}
 
 	@PreUpdate
 	protected void onUpdate() {
 		this.updatedAt = LocalDateTime.now();
+		this.status = canonicalStatus(status);
+	}
+
+	/**
+	 * Forma canónica de un estado de paciente: sin espacios alrededor y en minúsculas, como los valores de
+	 * {@link es.televoip.model.enums.PatientStatus}. Los estados se guardan y se buscan siempre así, de modo que la
+	 * comparación es exacta y usa el índice (status, name, id) sea cual sea la intercalación de la columna.
+	 *
+	 * @param status Estado tal como llega (puede ser null).
+	 * @return Estado canónico, o null si {@code status} es null.
+	 */
+	public static String canonicalStatus(String status) {
+		return status != null ? status.trim().toLowerCase(Locale.ROOT) : null;
+	}
+
+	/**
+	 * Añade un dato clínico al paciente manteniendo los dos lados de la relación.
+	 */
+	public void addClinicalData(ClinicalData data) {
+		data.setPatient(this);
+		clinicalDataList.add(data);
+	}
+
+	/**
+	 * Asigna este paciente a todos sus datos clínicos (p. ej. tras crearlo con el builder).
+	 */
+	public void linkClinicalData() {
+		if (clinicalDataList != null) {
+			clinicalDataList.forEach(data -> data.setPatient(this));
+		}
 	}
 	
 }
@@ -0,0 +1,55 @@
+package es.televoip.model.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import es.televoip.util.UuidV7;
+
+/**
+ * Término de búsqueda normalizado de un paciente. Cada fila guarda un sufijo (en minúsculas y sin acentos) del nombre
+ * completo, del correo electrónico o del teléfono, de modo que una búsqueda por subcadena se resuelve con un
+ * {@code LIKE 'texto%'} sobre el índice de {@code term}.
+ */
+@Entity
+@Table(name = "patient_search_term", indexes = {
+		@Index(name = "idx_patient_search_term_term", columnList = "term, patient_id"),
+		@Index(name = "idx_patient_search_term_patient", columnList = "patient_id") })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PatientSearchTerm {
+
+	/**
+	 * Longitud máxima de un término. Los sufijos más largos se truncan.
+	 */
+	public static final int MAX_TERM_LENGTH = 64;
+
+	@Id
+	@Column(name = "id", length = 36, updatable = false, nullable = false, columnDefinition = "UUID")
+	private String id;
+
+	@Column(name = "patient_id", length = 36, nullable = false, columnDefinition = "UUID")
+	private String patientId;
+
+	@Column(name = "term", length = MAX_TERM_LENGTH, nullable = false)
+	private String term;
+
+	@PrePersist
+	protected void onCreate() {
+		if (this.id == null) {
+			this.id = UuidV7.generateString();
+		}
+	}
+
+}
@@ -0,0 +1,122 @@
+package es.televoip.model.entities;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import es.televoip.model.enums.ClinicalStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Resumen materializado de los datos clínicos de un paciente: cuántos registros tiene en cada {@link ClinicalStatus}
+ * y cuándo cambiaron por última vez. El panel lateral pinta los contadores de estado a partir de esta fila, sin cargar
+ * la lista de datos clínicos del paciente.
+ * <p>
+ * La fila comparte la clave con el paciente y se mantiene de forma incremental desde {@code PatientService}. También
+ * guarda la clave del panel lateral ordenado por categoría, que así se pagina sobre un índice en lugar de agrupar los
+ * datos clínicos de todos los pacientes en cada página.
+ */
+@Entity
+@Table(name = "patient_status_summary", indexes = {
+		// Panel lateral ordenado por categoría, paginado por clave (ver PatientStatusSummaryRepository)
+		@Index(name = "idx_patient_status_summary_category", columnList = "first_category_name, patient_id") })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PatientStatusSummary {
+
+	/**
+	 * ID del paciente al que pertenece el resumen.
+	 */
+	@Id
+	@Column(name = "patient_id", length = 36, updatable = false, nullable = false, columnDefinition = "UUID")
+	private String patientId;
+
+	@Column(name = "urgent_count", nullable = false)
+	private long urgentCount;
+
+	@Column(name = "pending_count", nullable = false)
+	private long pendingCount;
+
+	@Column(name = "in_progress_count", nullable = false)
+	private long inProgressCount;
+
+	@Column(name = "completed_count", nullable = false)
+	private long completedCount;
+
+	/**
+	 * Fecha y hora del último cambio en los datos clínicos del paciente.
+	 */
+	@Column(name = "last_activity")
+	private LocalDateTime lastActivity;
+
+	/**
+	 * Primer nombre de categoría (en orden alfabético) entre los datos clínicos del paciente, o cadena vacía si no tiene
+	 * ninguno, de modo que esos pacientes aparecen primero.
+	 */
+	@Builder.Default
+	@Column(name = "first_category_name", nullable = false)
+	private String firstCategoryName = "";
+
+	/**
+	 * Número de cambios en los datos clínicos del paciente. Cada nodo lo compara con el de su índice de búsqueda en
+	 * memoria para saber si refleja los cambios hechos desde otros nodos.
+	 */
+	@Column(name = "data_version", nullable = false)
+	private long dataVersion;
+
+	/**
+	 * Devuelve el número de registros clínicos del paciente en el estado indicado.
+	 *
+	 * @param status Estado clínico.
+	 * @return Número de registros en ese estado.
+	 */
+	public long getCount(ClinicalStatus status) {
+		switch (status) {
+		case URGENTE:
+			return urgentCount;
+		case PENDIENTE:
+			return pendingCount;
+		case EN_CURSO:
+			return inProgressCount;
+		case COMPLETADO:
+			return completedCount;
+		default:
+			return 0;
+		}
+	}
+
+	/**
+	 * Suma (o resta, si es negativo) {@code delta} al contador del estado indicado, sin bajar de cero.
+	 *
+	 * @param status Estado clínico.
+	 * @param delta  Cantidad a sumar.
+	 */
+	public void addToCount(ClinicalStatus status, long delta) {
+		long value = Math.max(0, getCount(status) + delta);
+		switch (status) {
+		case URGENTE:
+			urgentCount = value;
+			break;
+		case PENDIENTE:
+			pendingCount = value;
+			break;
+		case EN_CURSO:
+			inProgressCount = value;
+			break;
+		case COMPLETADO:
+			completedCount = value;
+			break;
+		}
+	}
+
+}
@@ -0,0 +1,44 @@
+package es.televoip.model.entities;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Registro de una semilla de datos aplicada: qué versión se aplicó y con qué checksum, para no volver a ejecutarla en
+ * cada arranque.
+ */
+@Entity
+@Table(name = "seed_history")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SeedHistory {
+
+	@Id
+	@Column(name = "seed_id", length = 100, updatable = false, nullable = false)
+	private String seedId;
+
+	@Column(name = "version", nullable = false)
+	private int version;
+
+	/**
+	 * SHA-256 (hexadecimal) del contenido de la semilla en la versión aplicada.
+	 */
+	@Column(name = "checksum", length = 64, nullable = false)
+	private String checksum;
+
+	@Column(name = "applied_at", nullable = false)
+	private LocalDateTime appliedAt;
+
+}
@@ -0,0 +1,17 @@
+package es.televoip.model.enums;
+
+/**
+ * Ordenaciones disponibles para la línea de tiempo de datos clínicos.
+ */
+public enum TimelineSort {
+   /**
+    * Por prioridad del estado (Urgente, Pendiente, En curso, Completado), después por fecha descendente y por el orden
+    * de la categoría.
+    */
+   PRIORITY,
+
+   /**
+    * Por fecha descendente (lo más reciente primero).
+    */
+   DATE_DESC
+}
@@ -0,0 +1,17 @@
+package es.televoip.projections;
+
+public interface PatientSummary {
+
+	String getId();
+
+	String getName();
+
+	String getLastName();
+
+	String getPhoneNumber();
+
+	String getEmail();
+
+	String getStatus();
+
+}
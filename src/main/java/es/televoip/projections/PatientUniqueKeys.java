@@ -0,0 +1,11 @@
+package es.televoip.projections;
+
+public interface PatientUniqueKeys {
+
+	String getId();
+
+	String getEmail();
+
+	String getPhoneNumber();
+
+}
@@ -9,7 +9,7 @@ import org.springframework.stereotype.Repository;
 import es.televoip.model.entities.Category;
 
 @Repository
-public interface CategoryRepository extends JpaRepository<Category, String> {
+public interface CategoryRepository extends JpaRepository<Category, String>, CategoryRepositoryCustom {
     
     // Método existente para cargar subCategories
     @Query("SELECT DISTINCT c FROM Category c " +
@@ -21,5 +21,9 @@ public interface CategoryRepository extends JpaRepository<Category, String> {
           "LEFT JOIN FETCH c.subCategories " +
           "WHERE c.id = :id")
     Optional<Category> findByIdWithSubCategories(@Param("id") String id);
+
+    // Solo los IDs en el orden actual: para reordenar no hace falta cargar las categorías ni sus subcategorías
+    @Query("SELECT c.id FROM Category c ORDER BY c.displayOrder, c.id")
+    List<String> findIdsInDisplayOrder();
         
 }
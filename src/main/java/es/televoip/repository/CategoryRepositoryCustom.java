@@ -0,0 +1,19 @@
+package es.televoip.repository;
+
+import java.util.List;
+
+/**
+ * Operaciones de {@link CategoryRepository} que no se pueden expresar con una consulta fija.
+ */
+public interface CategoryRepositoryCustom {
+
+	/**
+	 * Asigna el orden de visualización 1, 2, 3... a las categorías en el orden de la lista, con una única sentencia
+	 * {@code UPDATE ... SET display_order = CASE id WHEN ... END}. Las categorías que no están en la lista no cambian.
+	 *
+	 * @param orderedIds IDs de las categorías en su nuevo orden.
+	 * @return Número de categorías actualizadas.
+	 */
+	int updateDisplayOrders(List<String> orderedIds);
+
+}
@@ -0,0 +1,44 @@
+package es.televoip.repository;
+
+import java.util.List;
+
+import es.televoip.model.entities.Category;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Implementación de {@link CategoryRepositoryCustom}. Spring Data la combina con {@link CategoryRepository} por el
+ * sufijo {@code Impl}.
+ */
+public class CategoryRepositoryImpl implements CategoryRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public int updateDisplayOrders(List<String> orderedIds) {
+		if (orderedIds.isEmpty()) {
+			return 0;
+		}
+
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaUpdate<Category> update = cb.createCriteriaUpdate(Category.class);
+		Root<Category> category = update.from(Category.class);
+		Path<String> id = category.get("id");
+		Path<Integer> displayOrder = category.get("displayOrder");
+
+		CriteriaBuilder.SimpleCase<String, Integer> newOrder = cb.selectCase(id);
+		for (int i = 0; i < orderedIds.size(); i++) {
+			newOrder.when(orderedIds.get(i), i + 1);
+		}
+		newOrder.otherwise(displayOrder);
+
+		update.set(displayOrder, newOrder).where(id.in(orderedIds));
+		return entityManager.createQuery(update).executeUpdate();
+	}
+
+}
@@ -1,12 +1,18 @@
 package es.televoip.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import es.televoip.model.entities.Category;
 import es.televoip.model.entities.ClinicalData;
 
 @Repository
@@ -22,4 +28,93 @@ public interface ClinicalDataRepository extends JpaRepository<ClinicalData, Stri
    @Query("SELECT DISTINCT cd FROM ClinicalData cd LEFT JOIN FETCH cd.category")
    List<ClinicalData> findAllWithCategory(); 
 
+   // Modificaciones por ID con bloqueo optimista: devuelven 0 filas si el registro no existe o ya no está en la
+   // versión indicada (otro operador lo ha modificado o eliminado entretanto)
+
+   /**
+    * Estado actual de un dato clínico del paciente. Comprueba además que el registro pertenece al paciente.
+    */
+   @Query("SELECT cd.status FROM ClinicalData cd WHERE cd.id = :id AND cd.patient.id = :patientId")
+   Optional<String> findStatusByPatientIdAndId(@Param("patientId") String patientId, @Param("id") String id);
+
+   @Modifying
+   @Query("UPDATE ClinicalData cd SET cd.category = :category, cd.title = :title, cd.description = :description, " +
+          "cd.status = :status, cd.date = :date, cd.searchText = :searchText, cd.version = cd.version + 1 " +
+          "WHERE cd.id = :id AND cd.version = :version")
+   int updateIfVersion(@Param("id") String id, @Param("version") Long version, @Param("category") Category category,
+         @Param("title") String title, @Param("description") String description, @Param("status") String status,
+         @Param("date") LocalDateTime date, @Param("searchText") String searchText);
+
+   @Modifying
+   @Query("DELETE FROM ClinicalData cd WHERE cd.id = :id AND cd.version = :version")
+   int deleteIfVersion(@Param("id") String id, @Param("version") Long version);
+
+   // Consultas paginadas de la línea de tiempo. Todos los filtros se aplican en la base de datos:
+   // - categoryId: null para todas las categorías.
+   // - anyStatus/statuses: si anyStatus es true se ignora statuses (que no puede ir vacío en el IN).
+   // - term: patrón LIKE ya normalizado y escapado sobre searchText, o null para no filtrar por texto.
+   // - anyId/ids: IDs devueltos por el índice de búsqueda en memoria; si anyId es true se ignora ids.
+
+   /**
+    * Recupera una página de la línea de tiempo de un paciente ordenada por prioridad del estado, fecha descendente y
+    * orden de la categoría.
+    *
+    * @return Slice de datos clínicos con su categoría cargada.
+    */
+   @Query("SELECT cd FROM ClinicalData cd " +
+          "JOIN FETCH cd.category cat " +
+          "WHERE cd.patient.id = :patientId " +
+          "AND (:categoryId IS NULL OR cat.id = :categoryId) " +
+          "AND (:anyStatus = TRUE OR cd.status IN :statuses) " +
+          "AND (:term IS NULL OR cd.searchText LIKE :term ESCAPE '!') " +
+          "AND (:anyId = TRUE OR cd.id IN :ids) " +
+          "ORDER BY " +
+          "CASE WHEN cd.status = 'Urgente' THEN 0 " +
+          "     WHEN cd.status = 'Pendiente' THEN 1 " +
+          "     WHEN cd.status = 'En curso' THEN 2 " +
+          "     WHEN cd.status = 'Completado' THEN 3 " +
+          "     ELSE 4 END ASC, cd.date DESC, cat.displayOrder ASC, cd.id ASC")
+   Slice<ClinicalData> findTimelineOrderByPriority(@Param("patientId") String patientId,
+         @Param("categoryId") String categoryId, @Param("anyStatus") boolean anyStatus,
+         @Param("statuses") Collection<String> statuses, @Param("term") String term,
+         @Param("anyId") boolean anyId, @Param("ids") Collection<String> ids, Pageable pageable);
+
+   /**
+    * Recupera una página de la línea de tiempo de un paciente ordenada por fecha descendente.
+    *
+    * @return Slice de datos clínicos con su categoría cargada.
+    */
+   @Query("SELECT cd FROM ClinicalData cd " +
+          "JOIN FETCH cd.category cat " +
+          "WHERE cd.patient.id = :patientId " +
+          "AND (:categoryId IS NULL OR cat.id = :categoryId) " +
+          "AND (:anyStatus = TRUE OR cd.status IN :statuses) " +
+          "AND (:term IS NULL OR cd.searchText LIKE :term ESCAPE '!') " +
+          "AND (:anyId = TRUE OR cd.id IN :ids) " +
+          "ORDER BY cd.date DESC, cd.id ASC")
+   Slice<ClinicalData> findTimelineOrderByDateDesc(@Param("patientId") String patientId,
+         @Param("categoryId") String categoryId, @Param("anyStatus") boolean anyStatus,
+         @Param("statuses") Collection<String> statuses, @Param("term") String term,
+         @Param("anyId") boolean anyId, @Param("ids") Collection<String> ids, Pageable pageable);
+
+   @Query("SELECT COUNT(cd) FROM ClinicalData cd " +
+          "WHERE cd.patient.id = :patientId " +
+          "AND (:categoryId IS NULL OR cd.category.id = :categoryId) " +
+          "AND (:anyStatus = TRUE OR cd.status IN :statuses) " +
+          "AND (:term IS NULL OR cd.searchText LIKE :term ESCAPE '!') " +
+          "AND (:anyId = TRUE OR cd.id IN :ids)")
+   long countTimeline(@Param("patientId") String patientId, @Param("categoryId") String categoryId,
+         @Param("anyStatus") boolean anyStatus, @Param("statuses") Collection<String> statuses,
+         @Param("term") String term, @Param("anyId") boolean anyId, @Param("ids") Collection<String> ids);
+
+   /**
+    * Datos clínicos de un paciente para construir su índice de búsqueda en memoria. El título y la descripción solo
+    * se usan si el registro aún no tiene texto de búsqueda.
+    *
+    * @return Filas {ID del dato clínico, ID de la categoría, título, descripción, texto normalizado}.
+    */
+   @Query("SELECT cd.id, cd.category.id, cd.title, cd.description, cd.searchText FROM ClinicalData cd " +
+          "WHERE cd.patient.id = :patientId")
+   List<Object[]> findSearchEntriesByPatientId(@Param("patientId") String patientId);
+
 }
@@ -1,129 +1,248 @@
 package es.televoip.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import es.televoip.model.entities.PatientData;
+import es.televoip.projections.PatientSummary;
+import es.televoip.projections.PatientUniqueKeys;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Repositorio de pacientes.
+ * <p>
+ * Las consultas no usan JOIN FETCH sobre las colecciones: cada una elige el perfil de carga de la pantalla que la usa
+ * ({@link PatientData#GRAPH_SUMMARY}, {@link PatientData#GRAPH_TIMELINE} o {@link PatientData#GRAPH_ADMIN}) para no
+ * multiplicar filas con productos cartesianos.
+ */
 @Repository
 public interface PatientRepository extends JpaRepository<PatientData, String> {
 
-	boolean existsByEmail(String email);
-
 	boolean existsByPhoneNumber(String phoneNumber);
 
-	Optional<PatientData> findByEmail(String email);
+	// Pacientes que ya usan el correo o el teléfono indicados; solo las columnas de las claves únicas
+	@Query("SELECT p.id AS id, p.email AS email, p.phoneNumber AS phoneNumber FROM PatientData p "
+			+ "WHERE p.email = :email OR p.phoneNumber = :phoneNumber")
+	List<PatientUniqueKeys> findUniqueKeyConflicts(@Param("email") String email,
+			@Param("phoneNumber") String phoneNumber);
+
+	// Solo las columnas del paciente; clinicalDataList se carga por lotes si se accede dentro de la transacción
+	Optional<PatientData> findByPhoneNumber(String phoneNumber);
+
+	// Solo el ID, para escrituras que no necesitan cargar el paciente
+	@Query("SELECT p.id FROM PatientData p WHERE p.phoneNumber = :phoneNumber")
+	Optional<String> findIdByPhoneNumber(@Param("phoneNumber") String phoneNumber);
 
-	// Uso de JOIN FETCH para cargar clinicalDataList
-	@Query("SELECT p FROM PatientData p LEFT JOIN FETCH p.clinicalDataList WHERE p.phoneNumber = :phoneNumber")
-	Optional<PatientData> findByPhoneNumber(@Param("phoneNumber") String phoneNumber);
+	// Marca el paciente como actualizado (orden "Última Actualización") sin cargarlo
+	@Modifying
+	@Query("UPDATE PatientData p SET p.updatedAt = :updatedAt WHERE p.id = :id")
+	int touch(@Param("id") String id, @Param("updatedAt") LocalDateTime updatedAt);
 
-	// Cargar todas las asociaciones necesarias
-	@Query("SELECT DISTINCT p FROM PatientData p " 
-			+ "LEFT JOIN FETCH p.clinicalDataList cd "
-			+ "LEFT JOIN FETCH cd.category c")
+	// Todos los pacientes para el panel lateral, sin sus datos clínicos
+	@EntityGraph(PatientData.GRAPH_SUMMARY)
+	@Query("SELECT p FROM PatientData p ORDER BY p.name ASC, p.id ASC")
 	List<PatientData> findAllWithClinicalData();
 
-	// Cargar un paciente con sus datos clínicos y categorías
-	@Query("SELECT DISTINCT p FROM PatientData p " +
-	       "LEFT JOIN FETCH p.clinicalDataList cd " +
-	       "LEFT JOIN FETCH cd.category cat " +
-	       "WHERE p.phoneNumber = :phoneNumber")
+	// Cargar un paciente con sus datos clínicos y categorías (línea de tiempo)
+	@EntityGraph(PatientData.GRAPH_TIMELINE)
+	@Query("SELECT p FROM PatientData p WHERE p.phoneNumber = :phoneNumber")
 	Optional<PatientData> findByPhoneNumberWithClinicalData(@Param("phoneNumber") String phoneNumber);
 
 	/**
-	 * Busca pacientes cuyo nombre, número de teléfono o correo electrónico contengan el texto de filtro.
+	 * Busca pacientes por el índice de términos normalizados (nombre completo, teléfono o correo).
+	 *
+	 * @param prefix Patrón LIKE de prefijo ya normalizado y escapado (ver PatientSearchService.toPrefixPattern).
+	 * @return Lista de pacientes que coinciden con el criterio de búsqueda, sin sus datos clínicos.
+	 */
+	@Query("SELECT p FROM PatientData p WHERE p.id IN ("
+			+ "SELECT t.patientId FROM PatientSearchTerm t WHERE t.term LIKE :prefix ESCAPE '!') "
+			+ "ORDER BY p.name ASC, p.id ASC")
+	List<PatientData> findByTermPrefix(@Param("prefix") String prefix);
+
+	/**
+	 * Devuelve una página de filas resumen de los pacientes que coinciden con la búsqueda.
 	 *
-	 * @param filterText Texto de búsqueda para filtrar pacientes.
-	 * @return Lista de pacientes que coinciden con el criterio de búsqueda.
+	 * @param prefix   Patrón LIKE de prefijo ya normalizado y escapado.
+	 * @param pageable Página solicitada.
+	 * @return Slice de resúmenes de pacientes ordenados por nombre.
 	 */
-	@Query("SELECT DISTINCT p FROM PatientData p " + "LEFT JOIN FETCH p.clinicalDataList cd "
-			+ "LEFT JOIN FETCH cd.category c " + "WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :filterText, '%')) "
-			+ "OR LOWER(p.phoneNumber) LIKE LOWER(CONCAT('%', :filterText, '%')) "
-			+ "OR LOWER(p.email) LIKE LOWER(CONCAT('%', :filterText, '%'))")
-	List<PatientData> findByNameOrPhoneOrEmail(@Param("filterText") String filterText);
-
-	// Nueva consulta para obtener pacientes suspendidos
-	@Query("SELECT DISTINCT p FROM PatientData p " + "LEFT JOIN FETCH p.clinicalDataList cd "
-			+ "LEFT JOIN FETCH cd.category c " + "WHERE p.status = 'suspended'")
+	@Query("SELECT p.id AS id, p.name AS name, p.lastName AS lastName, p.phoneNumber AS phoneNumber, "
+			+ "p.email AS email, p.status AS status FROM PatientData p WHERE p.id IN ("
+			+ "SELECT t.patientId FROM PatientSearchTerm t WHERE t.term LIKE :prefix ESCAPE '!') "
+			+ "ORDER BY p.name ASC, p.id ASC")
+	Slice<PatientSummary> findSummariesByTermPrefix(@Param("prefix") String prefix, Pageable pageable);
+
+	@Query("SELECT COUNT(p) FROM PatientData p WHERE p.id IN ("
+			+ "SELECT t.patientId FROM PatientSearchTerm t WHERE t.term LIKE :prefix ESCAPE '!')")
+	long countByTermPrefix(@Param("prefix") String prefix);
+
+	// Nueva consulta para obtener pacientes suspendidos (grid de administración)
+	@EntityGraph(PatientData.GRAPH_ADMIN)
+	@Query("SELECT p FROM PatientData p WHERE p.status = 'suspended' ORDER BY p.name ASC, p.id ASC")
 	List<PatientData> findAllSuspendedPatients();
 
 	// Nueva consulta para obtener pacientes activos con filtro
-	@Query("SELECT DISTINCT p FROM PatientData p " + "LEFT JOIN FETCH p.clinicalDataList cd "
-			+ "LEFT JOIN FETCH cd.category c " + "WHERE p.status = 'active' AND ("
-			+ "LOWER(p.name) LIKE LOWER(CONCAT('%', :filterText, '%')) "
-			+ "OR LOWER(p.phoneNumber) LIKE LOWER(CONCAT('%', :filterText, '%')) "
-			+ "OR LOWER(p.email) LIKE LOWER(CONCAT('%', :filterText, '%'))" + ")")
-	List<PatientData> findActiveByNameOrPhoneOrEmail(@Param("filterText") String filterText);
-
-	// Nueva consulta para obtener todos los pacientes activos
-	@Query("SELECT DISTINCT p FROM PatientData p " + "LEFT JOIN FETCH p.clinicalDataList cd "
-			+ "LEFT JOIN FETCH cd.category c " + "WHERE p.status = 'active'")
+	@Query("SELECT p FROM PatientData p WHERE p.status = 'active' AND p.id IN ("
+			+ "SELECT t.patientId FROM PatientSearchTerm t WHERE t.term LIKE :prefix ESCAPE '!') "
+			+ "ORDER BY p.name ASC, p.id ASC")
+	List<PatientData> findActiveByTermPrefix(@Param("prefix") String prefix);
+
+	// Nueva consulta para obtener todos los pacientes activos (grid de administración)
+	@EntityGraph(PatientData.GRAPH_ADMIN)
+	@Query("SELECT p FROM PatientData p WHERE p.status = 'active' ORDER BY p.name ASC, p.id ASC")
 	List<PatientData> findAllActivePatients();
 
-	@Query("SELECT DISTINCT p FROM PatientData p " 
-			+ "LEFT JOIN FETCH p.clinicalDataList " 
-			+ "WHERE p.id = :id")
+	// Solo se necesita saber si el paciente tiene datos clínicos, no sus categorías
+	@EntityGraph(attributePaths = "clinicalDataList")
+	@Query("SELECT p FROM PatientData p WHERE p.id = :id")
 	Optional<PatientData> findByIdWithClinicalData(@Param("id") String id);
 
-	@Query("SELECT p FROM PatientData p WHERE p.status = :status")
+	// Una página de pacientes del panel lateral; los contadores de estado salen de patient_status_summary
+	@EntityGraph(PatientData.GRAPH_SUMMARY)
+	@Query("SELECT p FROM PatientData p WHERE p.id IN :ids")
+	List<PatientData> findAllByIdIn(@Param("ids") Collection<String> ids);
+
+	@EntityGraph(PatientData.GRAPH_ADMIN)
+	@Query("SELECT p FROM PatientData p WHERE p.status = :status ORDER BY p.name ASC, p.id ASC")
 	List<PatientData> findByStatus(@Param("status") String status);
    
    //
 	 /**
-    * Recupera todos los pacientes con sus datos clínicos y categorías,
+    * Recupera todos los pacientes (perfil del panel lateral),
     * ordenados por nombre de categoría de forma ascendente.
     *
+    * La clave de ordenación (primera categoría de sus datos clínicos) está precalculada en patient_status_summary.
+    *
     * @return Lista de pacientes ordenados por nombre de categoría ascendente.
     */
-   @Query("SELECT DISTINCT p FROM PatientData p " +
-          "LEFT JOIN FETCH p.clinicalDataList cd " +
-          "LEFT JOIN FETCH cd.category cat " +
-          "ORDER BY cat.name ASC")
+   @EntityGraph(PatientData.GRAPH_SUMMARY)
+   @Query("SELECT p FROM PatientData p JOIN PatientStatusSummary s ON s.patientId = p.id " +
+          "ORDER BY s.firstCategoryName ASC, s.patientId ASC")
    List<PatientData> findAllWithClinicalDataOrderByCategoryAsc();
 
    /**
-    * Recupera todos los pacientes con sus datos clínicos y categorías,
+    * Recupera todos los pacientes (perfil del panel lateral),
     * ordenados alfabéticamente por nombre de forma ascendente.
     *
     * @return Lista de pacientes ordenados por nombre ascendente.
     */
-   @Query("SELECT DISTINCT p FROM PatientData p " +
-          "LEFT JOIN FETCH p.clinicalDataList cd " +
-          "LEFT JOIN FETCH cd.category cat " +
-          "ORDER BY p.name ASC")
+   @EntityGraph(PatientData.GRAPH_SUMMARY)
+   @Query("SELECT p FROM PatientData p ORDER BY p.name ASC, p.id ASC")
    List<PatientData> findAllWithClinicalDataOrderByNameAsc();
 
    /**
-    * Recupera todos los pacientes con sus datos clínicos y categorías,
+    * Recupera todos los pacientes (perfil del panel lateral),
     * ordenados por fecha de última actualización descendente.
     *
     * @return Lista de pacientes ordenados por fecha de última actualización.
     */
-   @Query("SELECT DISTINCT p FROM PatientData p " +
-          "LEFT JOIN FETCH p.clinicalDataList cd " +
-          "LEFT JOIN FETCH cd.category cat " +
-          "ORDER BY p.updatedAt DESC")
+   @EntityGraph(PatientData.GRAPH_SUMMARY)
+   @Query("SELECT p FROM PatientData p ORDER BY p.updatedAt DESC, p.id ASC")
    List<PatientData> findAllWithClinicalDataOrderByLastUpdatedDesc();
 
    /**
-    * Recupera todos los pacientes con sus datos clínicos y categorías,
+    * Recupera todos los pacientes (perfil del panel lateral),
     * ordenados por estado según prioridad definida.
     *
     * @return Lista de pacientes ordenados por estado.
     */
-   @Query("SELECT DISTINCT p FROM PatientData p " +
-          "LEFT JOIN FETCH p.clinicalDataList cd " +
-          "LEFT JOIN FETCH cd.category cat " +
+   @EntityGraph(PatientData.GRAPH_SUMMARY)
+   @Query("SELECT p FROM PatientData p " +
           "ORDER BY " +
-          "CASE WHEN p.status = 'Urgente' THEN 1 " +
-          "     WHEN p.status = 'Pendiente' THEN 2 " +
-          "     WHEN p.status = 'En curso' THEN 3 " +
-          "     WHEN p.status = 'Completado' THEN 4 " +
-          "     ELSE 5 END ASC")
+          "CASE WHEN p.status = 'urgente' THEN 1 " +
+          "     WHEN p.status = 'pendiente' THEN 2 " +
+          "     WHEN p.status = 'en curso' THEN 3 " +
+          "     WHEN p.status = 'completado' THEN 4 " +
+          "     ELSE 5 END ASC, p.name ASC, p.id ASC")
    List<PatientData> findAllWithClinicalDataOrderByStatus();
 
+   // Consultas paginadas para el panel lateral: sin JOIN FETCH para que LIMIT/OFFSET se apliquen en SQL
+
+   /**
+    * Recupera una página de pacientes ordenados alfabéticamente por nombre, sin sus datos clínicos.
+    *
+    * @param pageable Página solicitada.
+    * @return Slice de pacientes ordenados por nombre ascendente.
+    */
+   @Query("SELECT p FROM PatientData p ORDER BY p.name ASC, p.id ASC")
+   Slice<PatientData> findSliceOrderByNameAsc(Pageable pageable);
+
+   /**
+    * Recupera una página de pacientes ordenados por fecha de última actualización descendente.
+    *
+    * @param pageable Página solicitada.
+    * @return Slice de pacientes ordenados por fecha de última actualización.
+    */
+   @Query("SELECT p FROM PatientData p ORDER BY p.updatedAt DESC, p.id ASC")
+   Slice<PatientData> findSliceOrderByLastUpdatedDesc(Pageable pageable);
+
+   /**
+    * Recupera una página de pacientes ordenados por estado según prioridad definida.
+    *
+    * @param pageable Página solicitada.
+    * @return Slice de pacientes ordenados por estado.
+    */
+   @Query("SELECT p FROM PatientData p " +
+          "ORDER BY " +
+          "CASE WHEN p.status = 'urgente' THEN 1 " +
+          "     WHEN p.status = 'pendiente' THEN 2 " +
+          "     WHEN p.status = 'en curso' THEN 3 " +
+          "     WHEN p.status = 'completado' THEN 4 " +
+          "     ELSE 5 END ASC, p.name ASC, p.id ASC")
+   Slice<PatientData> findSliceOrderByStatus(Pageable pageable);
+
+   /**
+    * Recupera una página de pacientes con el estado indicado, ordenados por nombre.
+    *
+    * @param status   Estado del paciente en su forma canónica ({@link PatientData#canonicalStatus}). Los estados se
+    *                 guardan así, de modo que la comparación es exacta y usa el índice (status, name, id).
+    * @param pageable Página solicitada.
+    * @return Slice de pacientes con ese estado.
+    */
+   @Query("SELECT p FROM PatientData p WHERE p.status = :status ORDER BY p.name ASC, p.id ASC")
+   Slice<PatientData> findSliceByStatus(@Param("status") String status, Pageable pageable);
+
+   /**
+    * Recupera una página de pacientes ordenados por el primer nombre de categoría de sus datos clínicos, leyendo la
+    * clave precalculada en patient_status_summary (índice idx_patient_status_summary_category) en lugar de agrupar
+    * los datos clínicos de todos los pacientes. El panel lateral pagina por clave con
+    * {@link PatientStatusSummaryRepository#findPageByFirstCategoryAfter}.
+    *
+    * @param pageable Página solicitada.
+    * @return Slice de pacientes ordenados por categoría ascendente.
+    */
+   @Query("SELECT p FROM PatientData p JOIN PatientStatusSummary s ON s.patientId = p.id " +
+          "ORDER BY s.firstCategoryName ASC, s.patientId ASC")
+   Slice<PatientData> findSliceOrderByCategoryAsc(Pageable pageable);
+
+   /**
+    * Recupera una página de pacientes con al menos un dato clínico de la categoría indicada.
+    *
+    * @param categoryName Nombre de la categoría (sin distinguir mayúsculas).
+    * @param pageable     Página solicitada.
+    * @return Slice de pacientes con datos en esa categoría, ordenados por nombre.
+    */
+   @Query("SELECT DISTINCT p FROM PatientData p " +
+          "JOIN p.clinicalDataList cd " +
+          "JOIN cd.category cat " +
+          "WHERE LOWER(cat.name) = LOWER(:categoryName) " +
+          "ORDER BY p.name ASC, p.id ASC")
+   Slice<PatientData> findSliceByCategoryName(@Param("categoryName") String categoryName, Pageable pageable);
+
+   long countByStatus(String status);
+
+   @Query("SELECT COUNT(DISTINCT p) FROM PatientData p " +
+          "JOIN p.clinicalDataList cd " +
+          "JOIN cd.category cat " +
+          "WHERE LOWER(cat.name) = LOWER(:categoryName)")
+   long countByCategoryName(@Param("categoryName") String categoryName);
+
 }
@@ -0,0 +1,18 @@
+package es.televoip.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import es.televoip.model.entities.PatientSearchTerm;
+
+@Repository
+public interface PatientSearchTermRepository extends JpaRepository<PatientSearchTerm, String> {
+
+	// Borrado directo en SQL, sin cargar los términos en memoria
+	@Modifying
+	@Query("DELETE FROM PatientSearchTerm t WHERE t.patientId = :patientId")
+	void deleteByPatientId(@Param("patientId") String patientId);
+
+}
@@ -0,0 +1,82 @@
+package es.televoip.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import es.televoip.model.entities.PatientStatusSummary;
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface PatientStatusSummaryRepository extends JpaRepository<PatientStatusSummary, String> {
+
+	List<PatientStatusSummary> findByPatientIdIn(Collection<String> patientIds);
+
+	// Bloquea la fila para que dos cambios simultáneos del mismo paciente no pisen sus contadores
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT s FROM PatientStatusSummary s WHERE s.patientId = :patientId")
+	Optional<PatientStatusSummary> findForUpdate(@Param("patientId") String patientId);
+
+	// Versión de los datos clínicos del paciente, sin cargar el resumen (vacío si no tiene resumen)
+	@Query("SELECT s.dataVersion FROM PatientStatusSummary s WHERE s.patientId = :patientId")
+	Optional<Long> findDataVersion(@Param("patientId") String patientId);
+
+	/**
+	 * Cuenta los datos clínicos de un paciente agrupados por estado.
+	 *
+	 * @param patientId ID del paciente.
+	 * @return Filas {estado, total, fecha más reciente}.
+	 */
+	@Query("SELECT cd.status, COUNT(cd), MAX(cd.date) FROM ClinicalData cd "
+			+ "WHERE cd.patient.id = :patientId "
+			+ "GROUP BY cd.status")
+	List<Object[]> countClinicalDataByStatus(@Param("patientId") String patientId);
+
+	// Resumen vacío de un paciente, insertado sin consultar antes si existe; si ya existe no hace nada, así que dos
+	// transacciones que lo crean a la vez no chocan con la clave primaria (la segunda espera a la primera)
+	@Modifying
+	@Query("INSERT INTO PatientStatusSummary (patientId, urgentCount, pendingCount, inProgressCount, completedCount, "
+			+ "firstCategoryName, dataVersion) VALUES (:patientId, 0, 0, 0, 0, '', 0) ON CONFLICT DO NOTHING")
+	int insertEmpty(@Param("patientId") String patientId);
+
+	// Primer nombre de categoría de los datos clínicos de un paciente (null si no tiene ninguno)
+	@Query("SELECT MIN(cat.name) FROM ClinicalData cd JOIN cd.category cat WHERE cd.patient.id = :patientId")
+	String findFirstCategoryName(@Param("patientId") String patientId);
+
+	/**
+	 * Recalcula {@code firstCategoryName} de los pacientes con datos clínicos en una categoría, p. ej. al renombrarla.
+	 *
+	 * @param categoryId ID de la categoría.
+	 * @return Número de resúmenes actualizados.
+	 */
+	@Modifying
+	@Query("UPDATE PatientStatusSummary s SET s.firstCategoryName = COALESCE(("
+			+ "SELECT MIN(cat.name) FROM ClinicalData cd JOIN cd.category cat WHERE cd.patient.id = s.patientId), '') "
+			+ "WHERE s.patientId IN (SELECT cd.patient.id FROM ClinicalData cd WHERE cd.category.id = :categoryId)")
+	int refreshFirstCategoryNames(@Param("categoryId") String categoryId);
+
+	/**
+	 * Página del panel lateral ordenado por categoría, paginada por clave: empieza justo después de la fila
+	 * (categoryName, patientId) en lugar de saltar filas con OFFSET, así que el coste no depende de la posición.
+	 *
+	 * @param categoryName Categoría de la última fila ya mostrada ("" para empezar desde el principio).
+	 * @param patientId    ID de paciente de la última fila ya mostrada ({@code UuidV7.MIN} para empezar).
+	 * @param pageable     Tamaño de página; la página distinta de 0 solo se usa para saltar desde la fila conocida más
+	 *                     cercana.
+	 * @return Resúmenes de la página, en orden.
+	 */
+	@Query("SELECT s FROM PatientStatusSummary s WHERE s.firstCategoryName > :categoryName "
+			+ "OR (s.firstCategoryName = :categoryName AND s.patientId > :patientId) "
+			+ "ORDER BY s.firstCategoryName ASC, s.patientId ASC")
+	List<PatientStatusSummary> findPageByFirstCategoryAfter(@Param("categoryName") String categoryName,
+			@Param("patientId") String patientId, Pageable pageable);
+
+}
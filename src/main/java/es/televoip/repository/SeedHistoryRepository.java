@@ -0,0 +1,11 @@
+package es.televoip.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import es.televoip.model.entities.SeedHistory;
+
+@Repository
+public interface SeedHistoryRepository extends JpaRepository<SeedHistory, String> {
+
+}
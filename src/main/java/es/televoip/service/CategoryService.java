@@ -1,203 +1,147 @@
 package es.televoip.service;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import com.vaadin.flow.component.icon.VaadinIcon;
-
+import es.televoip.listener.CategoriesChangedEvent;
 import es.televoip.model.entities.Category;
 import es.televoip.model.entities.SubCategory;
 import es.televoip.repository.CategoryRepository;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Gestión de las categorías clínicas.
+ * <p>
+ * Las consultas de lectura se sirven desde una instantánea en memoria del árbol de categorías (con subcategorías, en
+ * orden de visualización), ya que las categorías casi nunca cambian y se consultan desde muchos componentes. Cada
+ * modificación descarta la instantánea al confirmar la transacción y la siguiente lectura la vuelve a cargar.
+ */
 @Service
 @Transactional
 @Slf4j
 public class CategoryService {
     private final CategoryRepository categoryRepository;
+    private final PatientStatusSummaryService statusSummaryService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Versión de las categorías: se incrementa con cada invalidación. Una carga solo se guarda como instantánea si la
+     * versión no ha cambiado mientras se leía de la base de datos.
+     */
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicReference<CategorySnapshot> snapshot = new AtomicReference<>();
 
     // @Autowired - No es necesario Autowired pero si se aplica
-    public CategoryService(CategoryRepository categoryRepository) {
+    public CategoryService(CategoryRepository categoryRepository, PatientStatusSummaryService statusSummaryService,
+            ApplicationEventPublisher eventPublisher) {
         this.categoryRepository = categoryRepository;
-        initializeDefaultCategories();
+        this.statusSummaryService = statusSummaryService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Instantánea inmutable de las categorías. Las entidades que contiene nunca salen de este servicio: los métodos
+     * públicos devuelven copias, porque las vistas modifican los objetos que reciben antes de guardarlos.
+     */
+    private static final class CategorySnapshot {
+        private final long version;
+        private final List<Category> categories;
+        private final List<String> names;
+
+        private CategorySnapshot(long version, List<Category> categories) {
+            this.version = version;
+            this.categories = List.copyOf(categories);
+            this.names = categories.stream().map(Category::getName).toList();
+        }
+    }
+
+    private CategorySnapshot currentSnapshot() {
+        CategorySnapshot current = snapshot.get();
+        if (current != null && current.version == version.get()) {
+            return current;
+        }
+        long loadVersion = version.get();
+        CategorySnapshot loaded = new CategorySnapshot(loadVersion, loadCategories());
+        // Si alguien ha invalidado mientras se cargaba, se usa la carga pero no se guarda
+        if (version.get() == loadVersion) {
+            snapshot.compareAndSet(current, loaded);
+        }
+        return loaded;
+    }
+
+    // Lee las categorías de la base de datos, ordenadas; las operaciones de escritura trabajan siempre sobre esta lista
+    private List<Category> loadCategories() {
+        return categoryRepository.findAllWithSubCategories().stream()
+            .sorted(Comparator.comparingInt(Category::getDisplayOrder))
+            .collect(Collectors.toList());
     }
 
-    private void initializeDefaultCategories() {
-        if (categoryRepository.count() == 0) {
-            List<Category> defaultCategories = initializeDefaultCategoriesList();
-            categoryRepository.saveAll(defaultCategories);
-            log.info("Categorías predeterminadas inicializadas.");
+    private static List<Category> copyOf(List<Category> categories) {
+        List<Category> copies = new ArrayList<>(categories.size());
+        for (Category category : categories) {
+            copies.add(copyOf(category));
         }
+        return copies;
     }
 
-    private List<Category> initializeDefaultCategoriesList() {
-        // Aquí debes crear y devolver la lista de categorías predeterminadas
-        /// 1. Citas y Agenda
-   	 Category appointments = Category.builder()
-             .id("appointments")
-             .name("Citas")
-             .icon(VaadinIcon.CALENDAR.name())
-             .isActive(true)
-             .subCategories(Arrays.asList(
-                 SubCategory.builder()
-                     .id("view")
-                     .name("Ver/Solicitar")
-                     .isActive(true)
-                     .isRequired(false)
-                     .displayOrder(1)
-                     .build(),
-                 SubCategory.builder()
-                     .id("modify")
-                     .name("Modificar/Cancelar")
-                     .isActive(true)
-                     .isRequired(false)
-                     .displayOrder(2)
-                     .build(),
-                 SubCategory.builder()
-                     .id("reminders")
-                     .name("Recordatorios")
-                     .isActive(true)
-                     .isRequired(false)
-                     .displayOrder(3)
-                     .build()
-             ))
-             .displayOrder(1)
-             .build();
+    private static Category copyOf(Category category) {
+        List<SubCategory> subCategories = null;
+        if (category.getSubCategories() != null) {
+            subCategories = category.getSubCategories().stream()
+                .map(sub -> sub.toBuilder().build())
+                .collect(Collectors.toCollection(ArrayList::new));
+        }
+        return category.toBuilder().subCategories(subCategories).build();
+    }
 
-         // 2. Tratamientos
-         Category treatments = Category.builder()
-             .id("treatments")
-             .name("Tratamientos")
-             .icon(VaadinIcon.DOCTOR.name())
-             .isActive(true)
-             .subCategories(Arrays.asList(
-                 SubCategory.builder()
-                     .id("active")
-                     .name("Activos")
-                     .isActive(true)
-                     .isRequired(false)
-                     .displayOrder(1)
-                     .build(),
-                 SubCategory.builder()
-                     .id("follow")
-                     .name("Seguimiento")
-                     .isActive(true)
-                     .isRequired(false)
-                     .displayOrder(2)
-                     .build(),
-                 SubCategory.builder()
-                     .id("history")
-                     .name("Historial")
-                     .isActive(true)
-                     .isRequired(false)
-                     .displayOrder(3)
-                     .build()
-             ))
-             .displayOrder(2)
-             .build();
+    /**
+     * Versión actual de las categorías de este nodo; cambia cada vez que se invalida la instantánea.
+     *
+     * @return Número de versión.
+     */
+    public long getCategoriesVersion() {
+        return version.get();
+    }
 
-         // 3. Pagos
-         Category payments = Category.builder()
-             .id("payments")
-             .name("Pagos")
-             .icon(VaadinIcon.EURO.name())
-             .isActive(true)
-             .subCategories(Arrays.asList(
-                 SubCategory.builder()
-                     .id("pending")
-                     .name("Facturas Pendientes")
-                     .isActive(true)
-                     .isRequired(false)
-                     .displayOrder(1)
-                     .build(),
-                 SubCategory.builder()
-                     .id("quotes")
-                     .name("Presupuestos")
-                     .isActive(true)
-                     .isRequired(false)
-                     .displayOrder(2)
-                     .build(),
-                 SubCategory.builder()
-                     .id("history")
-                     .name("Historial")
-                     .isActive(true)
-                     .isRequired(false)
-                     .displayOrder(3)
-                     .build()
-             ))
-             .displayOrder(3)
-             .build();
-         
-         // 4. Documentos
-         Category documents = Category.builder()
-             .id("documents")
-             .name("Documentos")
-             .icon(VaadinIcon.FILE_TEXT.name())
-             .isActive(true)
-             .subCategories(Arrays.asList(
-                 SubCategory.builder()
-                     .id("upload")
-                     .name("Subir")
-                     .isActive(true)
-                     .isRequired(false)
-                     .displayOrder(1)
-                     .build(),
-                 SubCategory.builder()
-                     .id("view")
-                     .name("Ver")
-                     .isActive(true)
-                     .isRequired(false)
-                     .displayOrder(2)
-                     .build(),
-                 SubCategory.builder()
-                     .id("share")
-                     .name("Compartir")
-                     .isActive(true)
-                     .isRequired(false)
-                     .displayOrder(3)
-                     .build()
-             ))
-             .displayOrder(4)
-             .build();
-         
-         // 5. Comunicaciones
-         Category communications = Category.builder()
-             .id("communications")
-             .name("Comunicaciones")
-             .icon(VaadinIcon.COMMENT.name())
-             .isActive(true)
-             .subCategories(Arrays.asList(
-                 SubCategory.builder()
-                     .id("messages")
-                     .name("Mensajes")
-                     .isActive(true)
-                     .isRequired(false)
-                     .displayOrder(1)
-                     .build(),
-                 SubCategory.builder()
-                     .id("notifications")
-                     .name("Notificaciones")
-                     .isActive(true)
-                     .isRequired(false)
-                     .displayOrder(2)
-                     .build(),
-                 SubCategory.builder()
-                     .id("feedback")
-                     .name("Retroalimentación")
-                     .isActive(true)
-                     .isRequired(false)
-                     .displayOrder(3)
-                     .build()
-             ))
-             .displayOrder(5)
-             .build();
+    /**
+     * Descarta la instantánea de categorías de este nodo. Lo llaman las operaciones de escritura (al confirmar la
+     * transacción) y el componente de clúster cuando otro nodo cambia las categorías.
+     */
+    public void invalidateCache() {
+        version.incrementAndGet();
+        snapshot.set(null);
+    }
 
-        return List.of(appointments, treatments, payments, documents,  communications);
+    // Invalida la instantánea al confirmar la transacción y avisa a otros nodos mediante CategoriesChangedEvent
+    private void categoriesChanged() {
+        Runnable invalidate = () -> {
+            invalidateCache();
+            eventPublisher.publishEvent(new CategoriesChangedEvent(version.get()));
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate.run();
+                }
+            });
+        } else {
+            invalidate.run();
+        }
     }
 
     /**
@@ -205,11 +149,9 @@ public class CategoryService {
      * 
      * @return Lista de todas las categorías.
      */
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<Category> getAllCategories() {
-        return categoryRepository.findAllWithSubCategories().stream()
-            .sorted(Comparator.comparingInt(Category::getDisplayOrder))
-            .collect(Collectors.toList());
+        return copyOf(currentSnapshot().categories);
     }
 
     /**
@@ -217,11 +159,11 @@ public class CategoryService {
      *
      * @return Lista de categorías activas.
      */
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<Category> getActiveCategories() {
-        return getAllCategories().stream()
+        return copyOf(currentSnapshot().categories.stream()
             .filter(Category::isActive)
-            .collect(Collectors.toList());
+            .collect(Collectors.toList()));
     }
     
     /**
@@ -235,6 +177,7 @@ public class CategoryService {
             return;
         }
         categoryRepository.save(category);
+        categoriesChanged();
         log.info("Categoría añadida: {}", category.getName());
     }
 
@@ -265,8 +208,17 @@ public class CategoryService {
      */
     @Transactional
     public void updateCategory(Category updatedCategory) {
-        if (categoryRepository.existsById(updatedCategory.getId())) {
+        Optional<Category> current = categoryRepository.findById(updatedCategory.getId());
+        if (current.isPresent()) {
+            boolean renamed = !Objects.equals(current.get().getName(), updatedCategory.getName());
             categoryRepository.save(updatedCategory);
+            if (renamed) {
+                // El panel lateral ordenado por categoría usa el nombre precalculado en patient_status_summary; la
+                // sentencia que lo recalcula debe ver ya el nombre nuevo
+                categoryRepository.flush();
+                statusSummaryService.categoryRenamed(updatedCategory.getId());
+            }
+            categoriesChanged();
             log.info("Categoría actualizada: {}", updatedCategory.getName());
         } else {
             log.warn("Intento de actualizar una categoría que no existe: {}", updatedCategory.getId());
@@ -279,9 +231,12 @@ public class CategoryService {
      * @param categoryId ID de la categoría.
      * @return La categoría correspondiente o null si no se encuentra.
      */
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Optional<Category> getCategoryById(String categoryId) {
-       return categoryRepository.findByIdWithSubCategories(categoryId);
+       return currentSnapshot().categories.stream()
+           .filter(category -> category.getId().equals(categoryId))
+           .findFirst()
+           .map(CategoryService::copyOf);
     }
     
     /**
@@ -290,9 +245,9 @@ public class CategoryService {
      * @param categoryId ID de la categoría.
      * @return La categoría correspondiente o Optional vacío si no se encuentra.
      */
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Optional<Category> getCategoryByIdWithDetails(String categoryId) {
-        return categoryRepository.findByIdWithSubCategories(categoryId);
+        return getCategoryById(categoryId);
     }
 
     /**
@@ -300,11 +255,9 @@ public class CategoryService {
      * 
      * @return Lista de todas las categorías.
      */
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<Category> getAllCategoriesWithDetails() {
-        return categoryRepository.findAllWithSubCategories().stream()
-            .sorted(Comparator.comparingInt(Category::getDisplayOrder))
-            .collect(Collectors.toList());
+        return getAllCategories();
     }
 
     /**
@@ -314,58 +267,74 @@ public class CategoryService {
      * @param moveUp     Si es true, mueve la categoría hacia arriba; si es false, hacia abajo.
      */
     public void moveCategory(String categoryId, boolean moveUp) {
-        List<Category> categories = getAllCategories();
-        Optional<Category> optionalCategory = categoryRepository.findById(categoryId);
-
-        if (optionalCategory.isEmpty()) {
+        List<String> orderedIds = getOrderedIds();
+        int index = orderedIds.indexOf(categoryId);
+        if (index < 0) {
             log.warn("Categoría no encontrada: {}", categoryId);
             return;
         }
+        moveCategory(orderedIds, categoryId, moveUp ? index - 1 : index + 1);
+    }
 
-        Category categoryToMove = optionalCategory.get();
-        int currentOrder = categoryToMove.getDisplayOrder();
-        int newOrder = moveUp ? currentOrder - 1 : currentOrder + 1;
+    /**
+     * Mueve una categoría a otra posición (por ejemplo, al arrastrarla en el grid) desplazando las demás.
+     *
+     * @param categoryId  ID de la categoría a mover.
+     * @param newPosition Nueva posición, empezando en 0.
+     */
+    public void moveCategory(String categoryId, int newPosition) {
+        moveCategory(getOrderedIds(), categoryId, newPosition);
+    }
 
+    private void moveCategory(List<String> orderedIds, String categoryId, int newPosition) {
+        if (!orderedIds.remove(categoryId)) {
+            log.warn("Categoría no encontrada: {}", categoryId);
+            return;
+        }
         // Validar límites
-        if (newOrder < 1 || newOrder > categories.size()) {
+        if (newPosition < 0 || newPosition > orderedIds.size()) {
             log.warn("Movimiento fuera de límites para la categoría: {}", categoryId);
             return;
         }
+        orderedIds.add(newPosition, categoryId);
+        applyOrder(orderedIds);
+        log.info("Categoría '{}' movida a posición {}", categoryId, newPosition + 1);
+    }
 
-        // Encontrar la categoría con la que intercambiar
-        Optional<Category> optionalCategoryToSwap = categories.stream()
-            .filter(c -> c.getDisplayOrder() == newOrder)
-            .findFirst();
-
-        if (optionalCategoryToSwap.isPresent()) {
-            Category categoryToSwap = optionalCategoryToSwap.get();
-
-            // Intercambiar órdenes
-            categoryToMove.setDisplayOrder(newOrder);
-            categoryToSwap.setDisplayOrder(currentOrder);
-
-            // Guardar los cambios
-            categoryRepository.save(categoryToMove);
-            categoryRepository.save(categoryToSwap);
-
-            log.info("Categoría '{}' movida a posición {}", categoryToMove.getName(), newOrder);
-            log.info("Categoría '{}' movida a posición {}", categoryToSwap.getName(), currentOrder);
-        } else {
-            log.warn("No se encontró una categoría para intercambiar en la posición {}", newOrder);
+    /**
+     * Aplica un orden completo a las categorías en una sola sentencia: la primera de la lista pasa a tener orden 1, la
+     * segunda 2, etc.
+     *
+     * @param orderedIds IDs de todas las categorías, cada una una sola vez, en su nuevo orden.
+     * @throws IllegalArgumentException Si la lista no contiene exactamente las categorías existentes (por ejemplo, se
+     *                                  calculó con una lista ya desactualizada): aplicarla dejaría órdenes repetidos.
+     */
+    public void reorderCategories(List<String> orderedIds) {
+        Set<String> currentIds = new HashSet<>(getOrderedIds());
+        if (orderedIds.size() != currentIds.size() || !currentIds.equals(new HashSet<>(orderedIds))) {
+            throw new IllegalArgumentException("El nuevo orden debe incluir todas las categorías exactamente una vez");
         }
+        applyOrder(orderedIds);
     }
 
     /**
      * Reordena todas las categorías según el displayOrder.
      */
     public void reorderCategories() {
-        List<Category> orderedCategories = getAllCategories();
-        int order = 1;
-        for (Category category : orderedCategories) {
-            category.setDisplayOrder(order++);
-            categoryRepository.save(category);
-        }
-        log.info("Categorías reordenadas.");
+        // Se lee de la base de datos: se llama tras eliminar una categoría en la misma transacción
+        applyOrder(getOrderedIds());
+    }
+
+    private void applyOrder(List<String> orderedIds) {
+        int updated = categoryRepository.updateDisplayOrders(orderedIds);
+        categoriesChanged();
+        log.info("Categorías reordenadas: {}", updated);
+    }
+
+    // IDs en el orden actual, leídos de la base de datos dentro de la transacción de escritura: la instantánea puede
+    // estar desactualizada si otro nodo acaba de cambiar las categorías
+    private List<String> getOrderedIds() {
+        return new ArrayList<>(categoryRepository.findIdsInDisplayOrder());
     }
     
     /**
@@ -373,10 +342,9 @@ public class CategoryService {
      *
      * @return Lista de nombres de categorías.
      */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<String> getAllCategoryNames() {
-        return categoryRepository.findAll().stream()
-                .map(Category::getName)
-                .toList();
+        return currentSnapshot().names;
     }
     
 }
@@ -0,0 +1,92 @@
+package es.televoip.service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.vaadin.flow.shared.Registration;
+
+import es.televoip.listener.ClinicalDataChangedEvent;
+import es.televoip.model.entities.PatientData;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Reparte a las pantallas abiertas de este nodo los cambios en los datos clínicos.
+ * <p>
+ * {@link PatientService} publica un {@link ClinicalDataChangedEvent} dentro de la transacción que modifica los datos;
+ * este componente lo recibe al confirmarse (un cambio deshecho nunca llega a las pantallas) y lo entrega a cada vista
+ * registrada desde un hilo propio, para no alargar la petición que hizo el cambio. El paciente afectado y su resumen de
+ * estados se consultan una sola vez aquí, fuera de los bloqueos de sesión, y viajan en el evento: cada vista solo
+ * actualiza su fila con {@code UI.access} y el resultado llega al navegador con server push, de modo que los demás
+ * operadores ven el cambio sin refrescar la lista a mano.
+ */
+@Component
+public class ClinicalDataBroadcaster {
+	private static final Logger logger = LoggerFactory.getLogger(ClinicalDataBroadcaster.class);
+
+	private final PatientService patientService;
+	private final List<Consumer<ClinicalDataChangedEvent>> listeners = new CopyOnWriteArrayList<>();
+
+	// Un solo hilo: los cambios se entregan en el mismo orden en que se confirmaron
+	private final ExecutorService executor = Executors
+			.newSingleThreadExecutor(Thread.ofVirtual().name("clinical-data-broadcast").factory());
+
+	public ClinicalDataBroadcaster(PatientService patientService) {
+		this.patientService = patientService;
+	}
+
+	/**
+	 * Registra una vista para recibir los cambios. La vista debe quitar el registro al desmontarse.
+	 *
+	 * @param listener Acción que recibe cada cambio. Se ejecuta en el hilo del repartidor, fuera de cualquier UI: debe
+	 *                 aplicar el cambio con {@code UI.access}.
+	 * @return Registro para dejar de recibir cambios.
+	 */
+	public Registration register(Consumer<ClinicalDataChangedEvent> listener) {
+		listeners.add(listener);
+		return () -> listeners.remove(listener);
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+	public void onClinicalDataChanged(ClinicalDataChangedEvent event) {
+		executor.execute(() -> {
+			if (listeners.isEmpty()) {
+				return;
+			}
+			ClinicalDataChangedEvent loaded = load(event);
+			for (Consumer<ClinicalDataChangedEvent> listener : listeners) {
+				try {
+					listener.accept(loaded);
+				} catch (RuntimeException e) {
+					// Una vista con problemas no debe impedir que las demás reciban el cambio
+					logger.warn("Error al notificar {} a una vista: {}", event, e.getMessage());
+				}
+			}
+		});
+	}
+
+	private ClinicalDataChangedEvent load(ClinicalDataChangedEvent event) {
+		try {
+			List<PatientData> patients = patientService.getPatientsWithStatusSummary(List.of(event.getPatientId()));
+			return event.withPatient(patients.isEmpty() ? null : patients.get(0));
+		} catch (RuntimeException e) {
+			// Sin el paciente las vistas aún pueden refrescar el timeline
+			logger.warn("Error al cargar el paciente de {}: {}", event, e.getMessage());
+			return event;
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+}
@@ -0,0 +1,325 @@
+package es.televoip.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import es.televoip.model.entities.ClinicalData;
+import es.televoip.repository.ClinicalDataRepository;
+import es.televoip.repository.PatientStatusSummaryRepository;
+import es.televoip.util.StringUtils;
+
+/**
+ * Índice invertido en memoria de trigramas sobre el título y la descripción de los datos clínicos, separado por
+ * paciente.
+ * <p>
+ * Cada registro se indexa por los trigramas de su texto normalizado ({@link ClinicalData#getSearchText()}). Una
+ * búsqueda toma la lista de registros del trigrama menos frecuente del texto buscado y comprueba solo esos candidatos,
+ * en lugar de recorrer con {@code LIKE '%texto%'} todos los registros del paciente.
+ * <p>
+ * El índice es local a cada nodo y no es la fuente de verdad: el índice de cada paciente se carga de la base de datos
+ * la primera vez que se busca en él y guarda la versión de sus datos clínicos
+ * ({@link es.televoip.model.entities.PatientStatusSummary#getDataVersion()}) que refleja. Antes de responder,
+ * {@link #search} compara esa versión con la de la base de datos y, si otro nodo ha cambiado los datos entretanto,
+ * vuelve a cargar el paciente. Los cambios hechos en este nodo se aplican al confirmar la transacción, para no
+ * indexar datos que luego se deshacen, y avanzan la versión solo si no falta ningún cambio anterior.
+ */
+@Service
+public class ClinicalSearchIndex {
+
+	/**
+	 * Longitud de los n-gramas indexados.
+	 */
+	static final int GRAM_LENGTH = 3;
+
+	/**
+	 * Máximo de resultados que devuelve {@link #search}. Si un texto coincide con más registros es poco selectivo y
+	 * conviene filtrar en la base de datos en lugar de enviar una lista enorme de IDs.
+	 */
+	public static final int MAX_RESULTS = 1000;
+
+	private final ClinicalDataRepository clinicalDataRepository;
+	private final PatientStatusSummaryRepository summaryRepository;
+
+	private final Map<String, PatientIndex> patients = new ConcurrentHashMap<>();
+
+	public ClinicalSearchIndex(ClinicalDataRepository clinicalDataRepository,
+			PatientStatusSummaryRepository summaryRepository) {
+		this.clinicalDataRepository = clinicalDataRepository;
+		this.summaryRepository = summaryRepository;
+	}
+
+	/**
+	 * Indexa (o reindexa) un dato clínico de un paciente, si su índice está cargado.
+	 *
+	 * @param patientId   ID del paciente.
+	 * @param data        Dato clínico con ID asignado.
+	 * @param dataVersion Versión de los datos clínicos del paciente tras el cambio.
+	 */
+	public void index(String patientId, ClinicalData data, long dataVersion) {
+		// Se calculan ahora los valores: la entidad puede cambiar antes de confirmar la transacción
+		data.refreshSearchText();
+		String id = data.getId();
+		String categoryId = data.getCategory() != null ? data.getCategory().getId() : null;
+		String text = data.getSearchText();
+		afterCommit(() -> {
+			PatientIndex index = patients.get(patientId);
+			if (index != null) {
+				index.put(id, categoryId, text, dataVersion);
+			}
+		});
+	}
+
+	/**
+	 * Quita un dato clínico del índice, si el del paciente está cargado.
+	 *
+	 * @param patientId      ID del paciente.
+	 * @param clinicalDataId ID del dato clínico eliminado.
+	 * @param dataVersion    Versión de los datos clínicos del paciente tras el cambio.
+	 */
+	public void remove(String patientId, String clinicalDataId, long dataVersion) {
+		afterCommit(() -> {
+			PatientIndex index = patients.get(patientId);
+			if (index != null) {
+				index.remove(clinicalDataId, dataVersion);
+			}
+		});
+	}
+
+	/**
+	 * Quita del índice todos los datos clínicos de un paciente.
+	 *
+	 * @param patientId ID del paciente eliminado.
+	 */
+	public void removePatient(String patientId) {
+		afterCommit(() -> patients.remove(patientId));
+	}
+
+	/**
+	 * Busca los datos clínicos de un paciente cuyo título o descripción contienen el texto. Si el índice del paciente
+	 * no está cargado o no está al día con la base de datos, se carga antes de responder.
+	 *
+	 * @param patientId      ID del paciente.
+	 * @param categoryId     ID de la categoría, o null para todas.
+	 * @param normalizedTerm Texto buscado, ya normalizado y no vacío.
+	 * @return IDs de los registros que coinciden, o vacío si el índice no puede responder (el paciente no tiene resumen
+	 *         con la versión de sus datos o hay más de {@link #MAX_RESULTS} coincidencias) y hay que buscar en la base
+	 *         de datos.
+	 */
+	public Optional<Set<String>> search(String patientId, String categoryId, String normalizedTerm) {
+		Optional<Long> dataVersion = summaryRepository.findDataVersion(patientId);
+		if (dataVersion.isEmpty()) {
+			return Optional.empty();
+		}
+		PatientIndex index = patients.get(patientId);
+		if (index == null || index.getDataVersion() != dataVersion.get()) {
+			index = load(patientId, dataVersion.get());
+			patients.put(patientId, index);
+		}
+		return Optional.ofNullable(index.search(categoryId, normalizedTerm, MAX_RESULTS));
+	}
+
+	// Los registros se leen después de la versión: como mucho incluyen cambios posteriores, que la siguiente búsqueda
+	// detecta por la versión y vuelve a cargar
+	private PatientIndex load(String patientId, long dataVersion) {
+		PatientIndex index = new PatientIndex(dataVersion);
+		for (Object[] row : clinicalDataRepository.findSearchEntriesByPatientId(patientId)) {
+			String text = (String) row[4];
+			if (text == null) {
+				// Registro anterior a la columna search_text que aún no se ha rellenado
+				text = StringUtils.normalizeForSearch((String) row[2], (String) row[3]);
+			}
+			index.put((String) row[0], (String) row[1], text, dataVersion);
+		}
+		return index;
+	}
+
+	// Ejecuta la acción al confirmar la transacción actual, o inmediatamente si no hay ninguna
+	private static void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
+
+	/**
+	 * Índice de un paciente. Cada registro ocupa una posición (slot); las listas de trigramas guardan posiciones en
+	 * orden creciente. Al borrar o modificar un registro su posición antigua queda vacía y se compacta el índice cuando
+	 * las posiciones vacías superan a las ocupadas.
+	 * <p>
+	 * Un cambio con la versión siguiente a la del índice la avanza. Si llega otro (se ha perdido uno intermedio o llegan
+	 * desordenados), se aplica igualmente pero la versión no avanza y la siguiente búsqueda vuelve a cargar el paciente.
+	 */
+	static final class PatientIndex {
+
+		private final List<Entry> entries = new ArrayList<>();
+		private final Map<String, Integer> slotById = new HashMap<>();
+		private final Map<String, IntList> postings = new HashMap<>();
+		private int removed;
+		private long dataVersion;
+
+		PatientIndex(long dataVersion) {
+			this.dataVersion = dataVersion;
+		}
+
+		synchronized long getDataVersion() {
+			return dataVersion;
+		}
+
+		synchronized void put(String id, String categoryId, String text, long version) {
+			removeSlot(id);
+			add(id, categoryId, text);
+			// Modificar un registro también deja vacía su posición anterior
+			compactIfSparse();
+			advanceTo(version);
+		}
+
+		synchronized void remove(String id, long version) {
+			removeSlot(id);
+			compactIfSparse();
+			advanceTo(version);
+		}
+
+		private void advanceTo(long version) {
+			if (version == dataVersion + 1) {
+				dataVersion = version;
+			}
+		}
+
+		/**
+		 * @return IDs de los registros que contienen el texto, o null si hay más de {@code limit}.
+		 */
+		synchronized Set<String> search(String categoryId, String term, int limit) {
+			Set<String> result = new HashSet<>();
+			if (term.length() < GRAM_LENGTH) {
+				// Texto demasiado corto para tener trigramas: se comprueban todos los registros del paciente
+				for (Entry entry : entries) {
+					if (entry != null && entry.matches(categoryId, term) && !addLimited(result, entry.id, limit)) {
+						return null;
+					}
+				}
+				return result;
+			}
+
+			// Candidatos: los registros del trigrama menos frecuente; el resto se comprueba con contains
+			IntList candidates = null;
+			for (int i = 0; i + GRAM_LENGTH <= term.length(); i++) {
+				IntList list = postings.get(term.substring(i, i + GRAM_LENGTH));
+				if (list == null) {
+					return result;
+				}
+				if (candidates == null || list.size < candidates.size) {
+					candidates = list;
+				}
+			}
+			for (int i = 0; i < candidates.size; i++) {
+				Entry entry = entries.get(candidates.values[i]);
+				if (entry != null && entry.matches(categoryId, term) && !addLimited(result, entry.id, limit)) {
+					return null;
+				}
+			}
+			return result;
+		}
+
+		private static boolean addLimited(Set<String> result, String id, int limit) {
+			result.add(id);
+			return result.size() <= limit;
+		}
+
+		private void add(String id, String categoryId, String text) {
+			int slot = entries.size();
+			entries.add(new Entry(id, categoryId, text));
+			slotById.put(id, slot);
+
+			Set<String> grams = new HashSet<>();
+			for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+				grams.add(text.substring(i, i + GRAM_LENGTH));
+			}
+			for (String gram : grams) {
+				postings.computeIfAbsent(gram, g -> new IntList()).add(slot);
+			}
+		}
+
+		private void removeSlot(String id) {
+			Integer slot = slotById.remove(id);
+			if (slot != null) {
+				entries.set(slot, null);
+				removed++;
+			}
+		}
+
+		private void compactIfSparse() {
+			if (removed > 64 && removed > entries.size() / 2) {
+				compact();
+			}
+		}
+
+		// Reconstruye las listas sin las posiciones vacías
+		private void compact() {
+			List<Entry> live = new ArrayList<>(entries.size() - removed);
+			for (Entry entry : entries) {
+				if (entry != null) {
+					live.add(entry);
+				}
+			}
+			entries.clear();
+			slotById.clear();
+			postings.clear();
+			removed = 0;
+			for (Entry entry : live) {
+				add(entry.id, entry.categoryId, entry.text);
+			}
+		}
+
+	}
+
+	private static final class Entry {
+
+		private final String id;
+		private final String categoryId;
+		private final String text;
+
+		Entry(String id, String categoryId, String text) {
+			this.id = id;
+			this.categoryId = categoryId;
+			this.text = text;
+		}
+
+		boolean matches(String categoryId, String term) {
+			return (categoryId == null || categoryId.equals(this.categoryId)) && text.contains(term);
+		}
+
+	}
+
+	// Lista de enteros sin boxing para las listas de posiciones
+	private static final class IntList {
+
+		private int[] values = new int[4];
+		private int size;
+
+		void add(int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+	}
+
+}
@@ -1,38 +1,61 @@
 package es.televoip.service;
 
 import org.springframework.stereotype.Service;
-import java.util.ArrayList;
-import java.util.List;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.VaadinSession;
+
+import es.televoip.util.LocaleChangeNotifier;
+
 import java.util.Locale;
 
+/**
+ * Idioma de la interfaz.
+ * <p>
+ * El idioma no se guarda en este bean (que es único para toda la aplicación) sino en la sesión y la UI de Vaadin de
+ * cada usuario, así que cambiarlo solo afecta a las pestañas de ese usuario. Al cambiarlo se vuelven a traducir en el
+ * sitio los componentes montados, sin recargar la página.
+ */
 @Service
 public class LanguageService {
 
-	 private Locale currentLocale = Locale.forLanguageTag("es"); // Idioma por defecto: Español
-	  
-    private final List<LanguageChangeListener> listeners = new ArrayList<>();
-
-    public Locale getCurrentLocale() {
-        return currentLocale;
-    }
-
-    public void setLocale(Locale locale) {
-        if (!locale.equals(this.currentLocale)) {
-            this.currentLocale = locale;
-            notifyListeners();
-        }
-    }
-
-    public void addLanguageChangeListener(LanguageChangeListener listener) {
-        listeners.add(listener);
-    }
-
-    private void notifyListeners() {
-        listeners.forEach(LanguageChangeListener::onLanguageChange);
-    }
-
-    public interface LanguageChangeListener {
-        void onLanguageChange();
-    }
-    
+	public static final Locale DEFAULT_LOCALE = Locale.forLanguageTag("es"); // Idioma por defecto: Español
+
+	/**
+	 * Idioma de la UI actual; si no hay UI (p. ej. en un hilo en segundo plano sin {@code UI.access}), el de la sesión,
+	 * y si tampoco hay sesión, el idioma por defecto.
+	 */
+	public Locale getCurrentLocale() {
+		UI ui = UI.getCurrent();
+		if (ui != null && ui.getLocale() != null) {
+			return ui.getLocale();
+		}
+		VaadinSession session = VaadinSession.getCurrent();
+		if (session != null && session.getLocale() != null) {
+			return session.getLocale();
+		}
+		return DEFAULT_LOCALE;
+	}
+
+	/**
+	 * Cambia el idioma de la sesión actual y vuelve a traducir los componentes de sus UI abiertas.
+	 *
+	 * @param locale Nuevo idioma.
+	 */
+	public void setLocale(Locale locale) {
+		VaadinSession session = VaadinSession.getCurrent();
+		if (session == null) {
+			throw new IllegalStateException("No se puede cambiar el idioma fuera de una sesión de Vaadin");
+		}
+		if (locale.equals(getCurrentLocale())) {
+			return;
+		}
+
+		// Vaadin aplica el idioma de la sesión a todas sus UI
+		session.setLocale(locale);
+		for (UI ui : session.getUIs()) {
+			ui.access(() -> LocaleChangeNotifier.notifyListeners(ui));
+		}
+	}
+
 }
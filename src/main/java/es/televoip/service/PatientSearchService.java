@@ -0,0 +1,114 @@
+package es.televoip.service;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.televoip.model.entities.PatientData;
+import es.televoip.model.entities.PatientSearchTerm;
+import es.televoip.repository.PatientSearchTermRepository;
+import es.televoip.util.StringUtils;
+
+/**
+ * Mantiene el índice de búsqueda de pacientes (tabla {@code patient_search_term}).
+ * <p>
+ * Por cada paciente se guardan todos los sufijos normalizados de su nombre completo, correo y teléfono. Buscar una
+ * subcadena equivale entonces a buscar el prefijo de algún sufijo, que MariaDB resuelve con un rango sobre el índice
+ * de {@code term} en lugar de recorrer la tabla de pacientes con {@code LIKE '%texto%'}.
+ */
+@Service
+public class PatientSearchService {
+
+	private final PatientSearchTermRepository searchTermRepository;
+
+	public PatientSearchService(PatientSearchTermRepository searchTermRepository) {
+		this.searchTermRepository = searchTermRepository;
+	}
+
+	/**
+	 * Regenera los términos de búsqueda de un paciente. Debe llamarse cada vez que cambian su nombre, apellidos, correo
+	 * o teléfono.
+	 *
+	 * @param patient Paciente ya persistido.
+	 */
+	@Transactional
+	public void reindex(PatientData patient) {
+		searchTermRepository.deleteByPatientId(patient.getId());
+		searchTermRepository.saveAll(toEntities(patient));
+	}
+
+	/**
+	 * Elimina los términos de búsqueda de un paciente.
+	 *
+	 * @param patientId ID del paciente eliminado.
+	 */
+	@Transactional
+	public void remove(String patientId) {
+		searchTermRepository.deleteByPatientId(patientId);
+	}
+
+	/**
+	 * Convierte un texto de búsqueda en el patrón LIKE de prefijo que se aplica sobre los términos indexados.
+	 *
+	 * @param searchText Texto introducido por el usuario.
+	 * @return Patrón {@code texto%} con los comodines escapados, o null si el texto está vacío.
+	 */
+	public static String toPrefixPattern(String searchText) {
+		String normalized = StringUtils.normalizeForSearch(searchText);
+		if (normalized.matches("[+0-9 ()\\-]+")) {
+			// Los teléfonos se indexan solo con dígitos
+			normalized = normalized.replaceAll("[^0-9]", "");
+		}
+		if (normalized.isEmpty()) {
+			return null;
+		}
+		if (normalized.length() > PatientSearchTerm.MAX_TERM_LENGTH) {
+			normalized = normalized.substring(0, PatientSearchTerm.MAX_TERM_LENGTH);
+		}
+
+		return StringUtils.escapeLike(normalized) + "%";
+	}
+
+	/**
+	 * Calcula los términos de búsqueda de un paciente: todos los sufijos de su nombre completo, de su correo y de los
+	 * dígitos de su teléfono. También la usa la migración que indexa los pacientes anteriores a la tabla (V13).
+	 *
+	 * @param patient Paciente a indexar.
+	 * @return Conjunto de términos sin duplicados.
+	 */
+	public static Set<String> buildTerms(PatientData patient) {
+		Set<String> terms = new LinkedHashSet<>();
+
+		String fullName = patient.getName() + (patient.getLastName() != null ? " " + patient.getLastName() : "");
+		addSuffixes(StringUtils.normalizeForSearch(fullName), terms);
+		addSuffixes(StringUtils.normalizeForSearch(patient.getEmail()), terms);
+		if (patient.getPhoneNumber() != null) {
+			addSuffixes(patient.getPhoneNumber().replaceAll("[^0-9]", ""), terms);
+		}
+
+		return terms;
+	}
+
+	private static void addSuffixes(String value, Set<String> terms) {
+		for (int i = 0; i < value.length(); i++) {
+			if (Character.isWhitespace(value.charAt(i))) {
+				continue;
+			}
+			String suffix = value.substring(i);
+			terms.add(suffix.length() > PatientSearchTerm.MAX_TERM_LENGTH
+					? suffix.substring(0, PatientSearchTerm.MAX_TERM_LENGTH)
+					: suffix);
+		}
+	}
+
+	private List<PatientSearchTerm> toEntities(PatientData patient) {
+		return buildTerms(patient).stream()
+				.map(term -> PatientSearchTerm.builder().patientId(patient.getId()).term(term).build())
+				.collect(Collectors.toList());
+	}
+
+}
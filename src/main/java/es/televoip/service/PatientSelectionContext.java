@@ -0,0 +1,66 @@
+package es.televoip.service;
+
+import java.io.Serializable;
+
+import com.vaadin.flow.spring.annotation.SpringComponent;
+import com.vaadin.flow.spring.annotation.UIScope;
+
+import es.televoip.model.SelectedPatient;
+import es.televoip.model.entities.PatientData;
+
+/**
+ * Paciente seleccionado en la UI (pestaña del navegador) actual.
+ * <p>
+ * Sustituye al antiguo {@code PatientService.currentUser}, que era un campo de un singleton compartido por todos los
+ * operadores. Cada UI tiene su propia instancia y solo guarda un {@link SelectedPatient}; los datos clínicos se
+ * consultan cuando se necesitan a partir del ID.
+ */
+@SpringComponent
+@UIScope
+public class PatientSelectionContext implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private SelectedPatient selectedPatient;
+
+	/**
+	 * Selecciona un paciente ya cargado, sin volver a consultarlo.
+	 *
+	 * @param patient Paciente seleccionado.
+	 */
+	public void select(PatientData patient) {
+		this.selectedPatient = patient != null ? SelectedPatient.of(patient) : null;
+	}
+
+	public void clear() {
+		this.selectedPatient = null;
+	}
+
+	/**
+	 * @return El paciente seleccionado, o null si no hay ninguno.
+	 */
+	public SelectedPatient getSelectedPatient() {
+		return selectedPatient;
+	}
+
+	public boolean hasSelection() {
+		return selectedPatient != null;
+	}
+
+	/**
+	 * @return El ID del paciente seleccionado, o null si no hay ninguno.
+	 */
+	public String getPatientId() {
+		return selectedPatient != null ? selectedPatient.getId() : null;
+	}
+
+	/**
+	 * Indica si el paciente dado es el seleccionado.
+	 *
+	 * @param patient Paciente a comprobar.
+	 * @return true si es el paciente seleccionado.
+	 */
+	public boolean isSelected(PatientData patient) {
+		return selectedPatient != null && patient != null && selectedPatient.getId().equals(patient.getId());
+	}
+
+}
@@ -1,20 +1,40 @@
 package es.televoip.service;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
+import es.televoip.listener.ClinicalDataChangedEvent;
+import es.televoip.model.CategorySortCursor;
 import es.televoip.model.entities.Category;
 import es.televoip.model.entities.ClinicalData;
 import es.televoip.model.entities.PatientData;
+import es.televoip.model.entities.PatientStatusSummary;
 import es.televoip.model.enums.PatientStatus;
+import es.televoip.model.enums.TimelineSort;
+import es.televoip.projections.PatientSummary;
+import es.televoip.repository.ClinicalDataRepository;
 import es.televoip.repository.PatientRepository;
+import es.televoip.util.StringUtils;
+import es.televoip.util.UuidV7;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
@@ -22,12 +42,24 @@ public class PatientService {
 	private static final Logger logger = LoggerFactory.getLogger(PatientService.class);
 
 	private final PatientRepository patientRepository;
-
-	// TODO: Considerar mover la gestión del usuario actual a un servicio de sesión separado
-	private PatientData currentUser;
-
-	public PatientService(PatientRepository patientRepository) {
+	private final ClinicalDataRepository clinicalDataRepository;
+	private final PatientSearchService patientSearchService;
+	private final PatientStatusSummaryService statusSummaryService;
+	private final ClinicalSearchIndex clinicalSearchIndex;
+	private final PatientUniquenessService uniquenessService;
+	private final ApplicationEventPublisher eventPublisher;
+
+	public PatientService(PatientRepository patientRepository, ClinicalDataRepository clinicalDataRepository,
+			PatientSearchService patientSearchService, PatientStatusSummaryService statusSummaryService,
+			ClinicalSearchIndex clinicalSearchIndex, PatientUniquenessService uniquenessService,
+			ApplicationEventPublisher eventPublisher) {
 		this.patientRepository = patientRepository;
+		this.clinicalDataRepository = clinicalDataRepository;
+		this.patientSearchService = patientSearchService;
+		this.statusSummaryService = statusSummaryService;
+		this.clinicalSearchIndex = clinicalSearchIndex;
+		this.uniquenessService = uniquenessService;
+		this.eventPublisher = eventPublisher;
 	}
 
 	/**
@@ -36,8 +68,12 @@ public class PatientService {
 	 * @param phoneNumber Número de teléfono del paciente
 	 * @param data        Datos del paciente a guardar
 	 */
+	@Transactional
 	public void addPatientData(String phoneNumber, PatientData data) {
-		patientRepository.save(data);
+		data.linkClinicalData();
+		PatientData savedPatient = patientRepository.save(data);
+		patientSearchService.reindex(savedPatient);
+		statusSummaryService.rebuild(savedPatient.getId());
 	}
 
 	/**
@@ -50,7 +86,10 @@ public class PatientService {
 	public void addDemoPatient(String phoneNumber, String name, List<ClinicalData> data) {
 		PatientData patient = PatientData.builder().phoneNumber(phoneNumber).name(name)
 				.clinicalDataList(new ArrayList<>(data)).status("active").build();
-		patientRepository.save(patient);
+		patient.linkClinicalData();
+		PatientData savedPatient = patientRepository.save(patient);
+		patientSearchService.reindex(savedPatient);
+		statusSummaryService.rebuild(savedPatient.getId());
 	}
 
 	/**
@@ -81,10 +120,11 @@ public class PatientService {
 	 */
 	@Transactional(readOnly = true)
 	public List<PatientData> findActiveByNameOrPhoneOrEmail(String filterText) {
-		if (filterText == null || filterText.trim().isEmpty()) {
+		String prefix = PatientSearchService.toPrefixPattern(filterText);
+		if (prefix == null) {
 			return getAllActivePatients();
 		}
-		return patientRepository.findActiveByNameOrPhoneOrEmail(filterText);
+		return patientRepository.findActiveByTermPrefix(prefix);
 	}
 
 	/**
@@ -133,140 +173,203 @@ public class PatientService {
 	}
 
 	/**
-	 * Establece el usuario actual en el sistema
-	 * 
-	 * @param phoneNumber Número de teléfono del usuario a establecer como actual
+	 * Obtiene los pacientes indicados con su resumen de estados clínicos, con dos consultas en total y sin cargar sus
+	 * datos clínicos.
+	 *
+	 * @param patientIds IDs de los pacientes, en el orden en que se quieren devolver.
+	 * @return Pacientes con {@code statusSummary} relleno, en el mismo orden que los IDs recibidos.
+	 */
+	@Transactional(readOnly = true)
+	public List<PatientData> getPatientsWithStatusSummary(List<String> patientIds) {
+		if (patientIds.isEmpty()) {
+			return new ArrayList<>();
+		}
+
+		Map<String, PatientData> patientsById = patientRepository.findAllByIdIn(patientIds).stream()
+				.collect(Collectors.toMap(PatientData::getId, Function.identity()));
+
+		List<PatientData> patients = patientIds.stream().map(patientsById::get).filter(Objects::nonNull)
+				.collect(Collectors.toList());
+		return attachStatusSummaries(patients);
+	}
+
+	private List<PatientData> attachStatusSummaries(List<PatientData> patients) {
+		Map<String, PatientStatusSummary> summaries = statusSummaryService
+				.getSummaries(patients.stream().map(PatientData::getId).collect(Collectors.toList()));
+		for (PatientData patient : patients) {
+			patient.setStatusSummary(summaries.get(patient.getId()));
+		}
+		return patients;
+	}
+
+	/**
+	 * Obtiene una página de la línea de tiempo de un paciente. El filtrado, la búsqueda de texto y la ordenación se
+	 * hacen en la base de datos, así que solo se cargan los registros de la página pedida.
+	 *
+	 * @param patientId  ID del paciente.
+	 * @param categoryId ID de la categoría, o null para todas.
+	 * @param statuses   Estados a mostrar; vacío o null para todos.
+	 * @param searchText Texto a buscar en título y descripción (sin distinguir mayúsculas ni acentos).
+	 * @param sort       Ordenación de la línea de tiempo.
+	 * @param pageable   Página solicitada.
+	 * @return Slice de datos clínicos con su categoría cargada.
 	 */
-	public void setCurrentUser(String phoneNumber) {
-		this.currentUser = patientRepository.findByPhoneNumber(phoneNumber).orElse(null);
+	@Transactional(readOnly = true)
+	public Slice<ClinicalData> getTimelinePage(String patientId, String categoryId, Collection<String> statuses,
+			String searchText, TimelineSort sort, Pageable pageable) {
+		boolean anyStatus = statuses == null || statuses.isEmpty();
+		Collection<String> statusList = anyStatus ? List.of("") : statuses;
+		TimelineSearch search = resolveTimelineSearch(patientId, categoryId, searchText);
+		if (search.noMatches()) {
+			return new SliceImpl<>(new ArrayList<>(), pageable, false);
+		}
+
+		if (sort == TimelineSort.DATE_DESC) {
+			return clinicalDataRepository.findTimelineOrderByDateDesc(patientId, categoryId, anyStatus, statusList,
+					search.term, search.anyId(), search.idList(), pageable);
+		}
+		return clinicalDataRepository.findTimelineOrderByPriority(patientId, categoryId, anyStatus, statusList,
+				search.term, search.anyId(), search.idList(), pageable);
 	}
 
 	/**
-	 * Obtiene el usuario actual del sistema
-	 * 
-	 * @return Usuario actual o null si no hay ninguno establecido
+	 * Cuenta los registros de la línea de tiempo de un paciente que cumplen los filtros.
+	 *
+	 * @see #getTimelinePage(String, String, Collection, String, TimelineSort, Pageable)
 	 */
 	@Transactional(readOnly = true)
-	public PatientData getCurrentUser() {
-		return currentUser;
+	public long countTimeline(String patientId, String categoryId, Collection<String> statuses, String searchText) {
+		boolean anyStatus = statuses == null || statuses.isEmpty();
+		TimelineSearch search = resolveTimelineSearch(patientId, categoryId, searchText);
+		if (search.noMatches()) {
+			return 0;
+		}
+		return clinicalDataRepository.countTimeline(patientId, categoryId, anyStatus,
+				anyStatus ? List.of("") : statuses, search.term, search.anyId(), search.idList());
 	}
 
 	/**
-	 * Añade un nuevo dato clínico a un paciente
+	 * Filtro de texto de la línea de tiempo: o bien los IDs que devuelve el índice en memoria, o bien un patrón LIKE
+	 * "%texto%" sobre el texto normalizado cuando el índice no puede responder. Ambos nulos si no hay texto.
+	 */
+	private static final class TimelineSearch {
+
+		private static final TimelineSearch NONE = new TimelineSearch(null, null);
+
+		private final String term;
+		private final Set<String> ids;
+
+		private TimelineSearch(String term, Set<String> ids) {
+			this.term = term;
+			this.ids = ids;
+		}
+
+		boolean anyId() {
+			return ids == null;
+		}
+
+		// El IN no admite colecciones vacías
+		Collection<String> idList() {
+			return ids == null ? List.of("") : ids;
+		}
+
+		boolean noMatches() {
+			return ids != null && ids.isEmpty();
+		}
+
+	}
+
+	private TimelineSearch resolveTimelineSearch(String patientId, String categoryId, String searchText) {
+		String normalized = StringUtils.normalizeForSearch(searchText);
+		if (normalized.isEmpty()) {
+			return TimelineSearch.NONE;
+		}
+		Optional<Set<String>> ids = clinicalSearchIndex.search(patientId, categoryId, normalized);
+		if (ids.isPresent()) {
+			return new TimelineSearch(null, ids.get());
+		}
+		return new TimelineSearch("%" + StringUtils.escapeLike(normalized) + "%", null);
+	}
+
+	/**
+	 * Añade un nuevo dato clínico a un paciente. El registro se inserta directamente con la referencia al paciente, sin
+	 * cargar ni volver a guardar su historial: el coste no depende de cuántos datos clínicos tenga.
 	 * 
 	 * @param phoneNumber Número de teléfono del paciente
 	 * @param data        Dato clínico a añadir
+	 * @return El dato clínico guardado, con su ID asignado
 	 */
 	@Transactional
-	public void addClinicalData(String phoneNumber, ClinicalData data) {
-		patientRepository.findByPhoneNumber(phoneNumber).ifPresent(patient -> {
-			if (patient.getClinicalDataList() == null) {
-				patient.setClinicalDataList(new ArrayList<>());
-			}
-			if (data.getId() == null) {
-				data.setId(UUID.randomUUID().toString());
-			}
-			patient.getClinicalDataList().add(data);
-			patientRepository.save(patient);
+	public ClinicalData addClinicalData(String phoneNumber, ClinicalData data) {
+		String patientId = patientRepository.findIdByPhoneNumber(phoneNumber)
+				.orElseThrow(() -> new RuntimeException("Patient not found"));
+
+		// getReferenceById no consulta el paciente: solo aporta la clave ajena patient_id
+		data.setPatient(patientRepository.getReferenceById(patientId));
+		ClinicalData saved = clinicalDataRepository.save(data);
+		patientRepository.touch(patientId, LocalDateTime.now());
 
-			// Actualizar currentUser si es el paciente actual
-			if (currentUser != null && currentUser.getPhoneNumber().equals(phoneNumber)) {
-				currentUser = patientRepository.findByPhoneNumberWithClinicalData(phoneNumber).orElse(patient);
-			}
-		});
+		long dataVersion = statusSummaryService.recordAdded(patientId, saved.getStatus());
+		clinicalSearchIndex.index(patientId, saved, dataVersion);
+		publishChange(ClinicalDataChangedEvent.Type.ADDED, patientId);
+		return saved;
 	}
 
 	/**
-	 * Actualiza un dato clínico existente del paciente actual
+	 * Actualiza un dato clínico existente de un paciente con un único UPDATE por ID. Solo se aplica si el registro sigue
+	 * en la versión que tenía {@code updatedData} al leerlo; si otro operador lo ha modificado o eliminado entretanto,
+	 * falla sin sobrescribir sus cambios.
 	 * 
-	 * @param updatedData Dato clínico actualizado
+	 * @param patientId   ID del paciente
+	 * @param updatedData Dato clínico actualizado, con el ID y la versión leídos
+	 * @throws ObjectOptimisticLockingFailureException si el registro ha cambiado desde que se leyó
 	 */
 	@Transactional
-	public void updateClinicalData(ClinicalData updatedData) {
-		if (currentUser == null) {
-			return;
-		}
-
-		// Obtener el paciente actualizado con sus datos clínicos
-		PatientData patient = patientRepository.findByPhoneNumberWithClinicalData(currentUser.getPhoneNumber())
-				.orElseThrow(() -> new RuntimeException("Patient not found"));
-
-		boolean updated = false;
-		for (int i = 0; i < patient.getClinicalDataList().size(); i++) {
-			ClinicalData data = patient.getClinicalDataList().get(i);
-			// Cambiar la comparación para usar IDs
-			if (data.getId().equals(updatedData.getId())) {
-				patient.getClinicalDataList().set(i, updatedData);
-				patientRepository.save(patient);
-				updated = true;
-				break;
-			}
+	public void updateClinicalData(String patientId, ClinicalData updatedData) {
+		String previousStatus = clinicalDataRepository.findStatusByPatientIdAndId(patientId, updatedData.getId())
+				.orElseThrow(() -> new ObjectOptimisticLockingFailureException(ClinicalData.class, updatedData.getId()));
+
+		// El UPDATE directo no pasa por @PreUpdate: el texto de búsqueda se calcula aquí
+		updatedData.refreshSearchText();
+		int updated = clinicalDataRepository.updateIfVersion(updatedData.getId(), updatedData.getVersion(),
+				updatedData.getCategory(), updatedData.getTitle(), updatedData.getDescription(),
+				updatedData.getStatus(), updatedData.getDate(), updatedData.getSearchText());
+		if (updated == 0) {
+			throw new ObjectOptimisticLockingFailureException(ClinicalData.class, updatedData.getId());
 		}
+		updatedData.setVersion(updatedData.getVersion() + 1);
 
-		if (!updated) {
-			System.err.println("No se encontró el dato clínico a actualizar");
-		}
-
-		// Actualizar currentUser con los datos frescos
-		currentUser = patientRepository.findByPhoneNumberWithClinicalData(currentUser.getPhoneNumber())
-				.orElse(currentUser);
+		long dataVersion = statusSummaryService.recordStatusChange(patientId, previousStatus, updatedData.getStatus());
+		clinicalSearchIndex.index(patientId, updatedData, dataVersion);
+		publishChange(ClinicalDataChangedEvent.Type.UPDATED, patientId);
 	}
 
 	/**
-	 * Elimina un dato clínico del paciente actual
+	 * Elimina un dato clínico de un paciente por su ID. Igual que {@link #updateClinicalData}, falla si el registro ha
+	 * cambiado desde que se leyó.
 	 * 
-	 * @param category Categoría del dato a eliminar
-	 * @param title    Título del dato clínico a eliminar
+	 * @param patientId ID del paciente
+	 * @param data      Dato clínico a eliminar, con el ID y la versión leídos
+	 * @throws ObjectOptimisticLockingFailureException si el registro ha cambiado desde que se leyó
 	 */
 	@Transactional
-	public void deleteClinicalData(Category category, String title) {
-		System.out.println("=== Iniciando proceso de eliminación ===");
-		if (currentUser == null) {
-			System.out.println("Error: No hay usuario actual seleccionado");
-			return;
-		}
+	public void deleteClinicalData(String patientId, ClinicalData data) {
+		String status = clinicalDataRepository.findStatusByPatientIdAndId(patientId, data.getId())
+				.orElseThrow(() -> new ObjectOptimisticLockingFailureException(ClinicalData.class, data.getId()));
 
-		System.out.println("Intentando eliminar dato clínico:");
-		System.out.println("- Categoría: " + category.getName());
-		System.out.println("- Título: " + title);
-		System.out.println("- Usuario: " + currentUser.getName());
-
-		PatientData patient = patientRepository.findByPhoneNumberWithClinicalData(currentUser.getPhoneNumber())
-				.orElseThrow(() -> {
-					System.out.println("Error: No se encontró el paciente en la base de datos");
-					return new RuntimeException("Patient not found");
-				});
-
-		System.out.println("Datos antes de eliminar:");
-		System.out.println("- Cantidad de datos clínicos: " + patient.getClinicalDataList().size());
-
-		// Encontrar y eliminar el dato clínico específico
-		boolean removed = patient.getClinicalDataList().removeIf(data -> {
-			boolean matches = data.getCategory().getId().equals(category.getId()) && data.getTitle().equals(title);
-			if (matches) {
-				System.out.println("Encontrado dato clínico a eliminar:");
-				System.out.println("- ID: " + data.getId());
-				System.out.println("- Título: " + data.getTitle());
-			}
-			return matches;
-		});
-
-		if (removed) {
-			System.out.println("Dato clínico eliminado de la lista");
-			patientRepository.save(patient);
-			System.out.println("Cambios guardados en la base de datos");
-
-			// Actualizar el currentUser
-			currentUser = patientRepository.findByPhoneNumberWithClinicalData(currentUser.getPhoneNumber())
-					.orElse(currentUser);
-			System.out.println("Usuario actual actualizado");
-			System.out
-					.println("Cantidad de datos clínicos después de eliminar: " + currentUser.getClinicalDataList().size());
-		} else {
-			System.out.println("ADVERTENCIA: No se encontró el dato clínico para eliminar");
+		if (clinicalDataRepository.deleteIfVersion(data.getId(), data.getVersion()) == 0) {
+			throw new ObjectOptimisticLockingFailureException(ClinicalData.class, data.getId());
 		}
+		logger.info("Dato clínico eliminado: ID {} del paciente {}", data.getId(), patientId);
+
+		long dataVersion = statusSummaryService.recordRemoved(patientId, status);
+		clinicalSearchIndex.remove(patientId, data.getId(), dataVersion);
+		publishChange(ClinicalDataChangedEvent.Type.REMOVED, patientId);
+	}
 
-		System.out.println("=== Proceso de eliminación finalizado ===");
+	// Avisa a las pantallas abiertas del cambio; ClinicalDataBroadcaster lo entrega al confirmar la transacción
+	private void publishChange(ClinicalDataChangedEvent.Type type, String patientId) {
+		eventPublisher.publishEvent(new ClinicalDataChangedEvent(type, patientId));
 	}
 
 	/**
@@ -316,13 +419,10 @@ public class PatientService {
 		} else {
 			// Eliminar el paciente
 			patientRepository.delete(patient);
+			patientSearchService.remove(patientId);
+			statusSummaryService.remove(patientId);
+			clinicalSearchIndex.removePatient(patientId);
 			logger.info("Paciente eliminado: ID {}", patientId);
-
-			// Si el paciente eliminado es el usuario actual, limpiar la referencia
-			if (currentUser != null && currentUser.getId().equals(patientId)) {
-				currentUser = null;
-				logger.info("El usuario actual ha sido eliminado. Referencia limpiada.");
-			}
 		}
 	}
 
@@ -334,10 +434,40 @@ public class PatientService {
 	 */
 	@Transactional(readOnly = true)
 	public List<PatientData> findByNameOrPhoneOrEmail(String filterText) {
-		if (filterText == null || filterText.trim().isEmpty()) {
-			return patientRepository.findAllWithClinicalData();
+		String prefix = PatientSearchService.toPrefixPattern(filterText);
+		if (prefix == null) {
+			return attachStatusSummaries(patientRepository.findAllWithClinicalData());
+		}
+		return attachStatusSummaries(patientRepository.findByTermPrefix(prefix));
+	}
+
+	/**
+	 * Busca pacientes por nombre completo, teléfono o correo electrónico usando el índice de búsqueda, sin distinguir
+	 * mayúsculas ni acentos.
+	 *
+	 * @param filterText Texto de búsqueda.
+	 * @param pageable   Página solicitada.
+	 * @return Slice de resúmenes de pacientes ordenados por nombre.
+	 */
+	@Transactional(readOnly = true)
+	public Slice<PatientSummary> searchPatients(String filterText, Pageable pageable) {
+		String prefix = PatientSearchService.toPrefixPattern(filterText);
+		if (prefix == null) {
+			return new SliceImpl<>(new ArrayList<>(), pageable, false);
 		}
-		return patientRepository.findByNameOrPhoneOrEmail(filterText);
+		return patientRepository.findSummariesByTermPrefix(prefix, pageable);
+	}
+
+	/**
+	 * Cuenta los pacientes que coinciden con la búsqueda.
+	 *
+	 * @param filterText Texto de búsqueda.
+	 * @return Número de pacientes que coinciden.
+	 */
+	@Transactional(readOnly = true)
+	public long countSearchPatients(String filterText) {
+		String prefix = PatientSearchService.toPrefixPattern(filterText);
+		return prefix == null ? 0 : patientRepository.countByTermPrefix(prefix);
 	}
 
 	/**
@@ -348,42 +478,32 @@ public class PatientService {
 	 */
 	@Transactional
 	public PatientData savePatient(PatientData patient) {
-		if (patient.getId() == null || patient.getId().isEmpty()) {
-			// Crear un nuevo paciente
-			patient.setId(UUID.randomUUID().toString());
-			System.out.println("Creando un nuevo paciente:" + patient.getName());
+		boolean isNew = patient.getId() == null || patient.getId().isEmpty();
+		if (isNew) {
+			// Crear un nuevo paciente: el ID se asigna al persistirlo, así save() inserta sin consultarlo antes
+			patient.setId(null);
+			logger.debug("Creando un nuevo paciente");
 		} else {
 			// Actualizar un paciente existente
-			System.out.println("Actualizando paciente existente: " + patient.getName());
+			logger.debug("Actualizando paciente existente: ID {}", patient.getId());
 		}
 
-		// Validaciones adicionales (si es necesario)
-		// Por ejemplo, verificar si el correo electrónico ya existe para otro paciente
-		if (patient.getEmail() != null && patientRepository.existsByEmail(patient.getEmail())) {
-			Optional<PatientData> existingPatient = patientRepository.findByEmail(patient.getEmail());
-			if (existingPatient.isPresent() && !existingPatient.get().getId().equals(patient.getId())) {
-				throw new RuntimeException("El correo electrónico ya está en uso por otro paciente.");
-			}
-		}
+		// Verificar que el correo electrónico y el teléfono no estén en uso por otro paciente (una sola consulta)
+		uniquenessService.checkAvailable(patient);
 
-		// Validar unicidad del número de teléfono
-		if (patient.getPhoneNumber() != null && patientRepository.existsByPhoneNumber(patient.getPhoneNumber())) {
-			Optional<PatientData> existingPatient = patientRepository.findByPhoneNumber(patient.getPhoneNumber());
-			if (existingPatient.isPresent() && !existingPatient.get().getId().equals(patient.getId())) {
-				throw new RuntimeException("El número de teléfono ya está en uso por otro paciente.");
-			}
+		// Guardar el paciente y actualizar su índice de búsqueda. El flush hace que una violación de las restricciones
+		// únicas (otro operador guardando los mismos datos a la vez) se detecte aquí y no al confirmar
+		PatientData savedPatient;
+		try {
+			savedPatient = patientRepository.saveAndFlush(patient);
+		} catch (DataIntegrityViolationException e) {
+			throw uniquenessService.translate(e);
 		}
-
-		// Guardar el paciente
-		PatientData savedPatient = patientRepository.save(patient);
-		System.out.println("Paciente guardado correctamente: " + savedPatient.getName());
-
-		// Actualizar el usuario actual si es necesario
-		if (currentUser != null && currentUser.getId().equals(savedPatient.getId())) {
-			currentUser = patientRepository.findByPhoneNumberWithClinicalData(savedPatient.getPhoneNumber())
-					.orElse(savedPatient);
-			System.out.println("Usuario actual actualizado: " + currentUser.getName());
+		if (isNew) {
+			statusSummaryService.createEmpty(savedPatient.getId());
 		}
+		patientSearchService.reindex(savedPatient);
+		logger.debug("Paciente guardado correctamente: ID {}", savedPatient.getId());
 
 		return savedPatient;
 	}
@@ -435,7 +555,7 @@ public class PatientService {
        } else {
            // Si el paciente no se encuentra, se puede manejar según sea necesario
            // Por ejemplo, registrar un mensaje de advertencia o lanzar una excepción
-           System.out.println("Paciente no encontrado con el número de teléfono: " + phoneNumber);
+           logger.debug("Paciente no encontrado al buscar sus datos clínicos por teléfono");
        }
 
        // Devolver la lista filtrada de datos clínicos
@@ -489,7 +609,7 @@ public class PatientService {
     */
    @Transactional(readOnly = true)
    public List<PatientData> getAllPatientsOrderedByLastUpdatedDesc() {
-       return patientRepository.findAllWithClinicalDataOrderByLastUpdatedDesc();
+       return attachStatusSummaries(patientRepository.findAllWithClinicalDataOrderByLastUpdatedDesc());
    }
 
    /**
@@ -499,7 +619,7 @@ public class PatientService {
     */
    @Transactional(readOnly = true)
    public List<PatientData> getAllPatientsOrderedByStatus() {
-       return patientRepository.findAllWithClinicalDataOrderByStatus();
+       return attachStatusSummaries(patientRepository.findAllWithClinicalDataOrderByStatus());
    }
    
    /**
@@ -510,7 +630,7 @@ public class PatientService {
    @Transactional(readOnly = true)
    public List<PatientData> getAllPatientsOrderedByNameAsc() {
        // Utiliza el método del repositorio para obtener la lista ordenada
-       List<PatientData> patients = patientRepository.findAllWithClinicalDataOrderByNameAsc();
+       List<PatientData> patients = attachStatusSummaries(patientRepository.findAllWithClinicalDataOrderByNameAsc());
        
        // Retorna la lista obtenida; puede agregar lógica adicional si es necesario
        return patients;
@@ -523,7 +643,87 @@ public class PatientService {
     */
    @Transactional(readOnly = true)
    public List<PatientData> getAllPatientsOrderedByCategoryAsc() {
-       return patientRepository.findAllWithClinicalDataOrderByCategoryAsc();
+       return attachStatusSummaries(patientRepository.findAllWithClinicalDataOrderByCategoryAsc());
+   }
+
+   /**
+    * Recupera una página de pacientes según la opción de ordenación del panel lateral.
+    * Solo se consultan las filas de la página solicitada, sin sus datos clínicos.
+    *
+    * @param sortOption     Opción de ordenación ("Nombre", "Última Actualización", "Estado" o "Categoría").
+    * @param statusFilter   Estado por el que filtrar cuando se ordena por estado (vacío para no filtrar).
+    * @param categoryFilter Nombre de categoría por la que filtrar cuando se ordena por categoría (vacío para no filtrar).
+    * @param pageable       Página solicitada.
+    * @return Slice de pacientes de la página solicitada.
+    */
+   @Transactional(readOnly = true)
+   public Slice<PatientData> getPatientsPage(String sortOption, String statusFilter, String categoryFilter,
+         Pageable pageable) {
+       switch (sortOption != null ? sortOption : "Nombre") {
+           case "Última Actualización":
+               return patientRepository.findSliceOrderByLastUpdatedDesc(pageable);
+           case "Estado":
+               if (statusFilter != null && !statusFilter.isEmpty()) {
+                   return patientRepository.findSliceByStatus(PatientData.canonicalStatus(statusFilter), pageable);
+               }
+               return patientRepository.findSliceOrderByStatus(pageable);
+           case "Categoría":
+               if (categoryFilter != null && !categoryFilter.isEmpty()) {
+                   return patientRepository.findSliceByCategoryName(categoryFilter, pageable);
+               }
+               // El panel lateral usa getPatientIdsOrderedByCategory (por clave); aquí se pagina sobre el mismo índice
+               return patientRepository.findSliceOrderByCategoryAsc(pageable);
+           case "Nombre":
+           default:
+               return patientRepository.findSliceOrderByNameAsc(pageable);
+       }
+   }
+
+   /**
+    * Obtiene los IDs de una página del panel lateral ordenado por categoría, paginando por clave sobre
+    * {@code patient_status_summary}: la página se lee a partir de la última fila conocida anterior a ella, así que su
+    * coste no depende del número de pacientes ni de la posición.
+    *
+    * @param cursor   Posiciones ya recorridas de la lista; se actualiza con el final de la página leída.
+    * @param pageable Página solicitada.
+    * @return IDs de los pacientes de la página, en orden.
+    */
+   @Transactional(readOnly = true)
+   public List<String> getPatientIdsOrderedByCategory(CategorySortCursor cursor, Pageable pageable) {
+       int offset = (int) pageable.getOffset();
+       int pageSize = pageable.getPageSize();
+       Map.Entry<Integer, CategorySortCursor.Key> start = cursor.floor(offset, pageSize);
+
+       // Normalmente la página empieza justo en la posición conocida; tras un salto de la barra de desplazamiento se
+       // saltan páginas enteras desde la más cercana
+       List<PatientStatusSummary> rows = statusSummaryService.getPageByFirstCategory(
+               start.getValue().getCategoryName(), start.getValue().getPatientId(),
+               PageRequest.of((offset - start.getKey()) / pageSize, pageSize));
+       if (!rows.isEmpty()) {
+           PatientStatusSummary last = rows.get(rows.size() - 1);
+           cursor.record(offset + rows.size(),
+                   new CategorySortCursor.Key(last.getFirstCategoryName(), last.getPatientId()));
+       }
+       return rows.stream().map(PatientStatusSummary::getPatientId).collect(Collectors.toList());
+   }
+
+   /**
+    * Cuenta los pacientes que mostrará el panel lateral con los filtros indicados.
+    *
+    * @param sortOption     Opción de ordenación actual.
+    * @param statusFilter   Estado por el que filtrar cuando se ordena por estado (vacío para no filtrar).
+    * @param categoryFilter Nombre de categoría por la que filtrar cuando se ordena por categoría (vacío para no filtrar).
+    * @return Número total de pacientes.
+    */
+   @Transactional(readOnly = true)
+   public long countPatients(String sortOption, String statusFilter, String categoryFilter) {
+       if ("Estado".equals(sortOption) && statusFilter != null && !statusFilter.isEmpty()) {
+           return patientRepository.countByStatus(PatientData.canonicalStatus(statusFilter));
+       }
+       if ("Categoría".equals(sortOption) && categoryFilter != null && !categoryFilter.isEmpty()) {
+           return patientRepository.countByCategoryName(categoryFilter);
+       }
+       return patientRepository.count();
    }
 
 }
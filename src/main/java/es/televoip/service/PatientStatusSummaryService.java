@@ -0,0 +1,212 @@
+package es.televoip.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.televoip.model.entities.PatientStatusSummary;
+import es.televoip.model.enums.ClinicalStatus;
+import es.televoip.repository.PatientStatusSummaryRepository;
+import es.televoip.util.UuidV7;
+
+/**
+ * Mantiene la tabla {@code patient_status_summary} con los contadores de estado clínico de cada paciente.
+ * <p>
+ * Los métodos {@code record*} se llaman desde {@link PatientService} dentro de la misma transacción que modifica los
+ * datos clínicos, de modo que el resumen nunca queda desfasado respecto a ellos.
+ */
+@Service
+public class PatientStatusSummaryService {
+	private static final Logger logger = LoggerFactory.getLogger(PatientStatusSummaryService.class);
+
+	private final PatientStatusSummaryRepository summaryRepository;
+
+	public PatientStatusSummaryService(PatientStatusSummaryRepository summaryRepository) {
+		this.summaryRepository = summaryRepository;
+	}
+
+	/**
+	 * Obtiene los resúmenes de varios pacientes en una sola consulta.
+	 *
+	 * @param patientIds IDs de los pacientes.
+	 * @return Mapa ID de paciente → resumen. Los pacientes sin resumen no aparecen.
+	 */
+	@Transactional(readOnly = true)
+	public Map<String, PatientStatusSummary> getSummaries(Collection<String> patientIds) {
+		if (patientIds.isEmpty()) {
+			return Map.of();
+		}
+		return summaryRepository.findByPatientIdIn(patientIds).stream()
+				.collect(Collectors.toMap(PatientStatusSummary::getPatientId, Function.identity()));
+	}
+
+	/**
+	 * Crea el resumen vacío de un paciente recién creado, para que aparezca desde el principio en el panel lateral
+	 * ordenado por categoría.
+	 *
+	 * @param patientId ID del paciente nuevo.
+	 */
+	@Transactional
+	public void createEmpty(String patientId) {
+		summaryRepository.insertEmpty(patientId);
+	}
+
+	/**
+	 * Obtiene una página del panel lateral ordenado por categoría a partir de la última fila conocida.
+	 *
+	 * @param categoryName Categoría de la fila anterior a la página ("" desde el principio).
+	 * @param patientId    ID de paciente de la fila anterior a la página ({@link UuidV7#MIN} desde el principio).
+	 * @param pageable     Tamaño de la página y número de páginas a saltar desde esa fila.
+	 * @return Resúmenes de la página, en orden.
+	 */
+	@Transactional(readOnly = true)
+	public List<PatientStatusSummary> getPageByFirstCategory(String categoryName, String patientId, Pageable pageable) {
+		return summaryRepository.findPageByFirstCategoryAfter(categoryName, patientId, pageable);
+	}
+
+	/**
+	 * Actualiza la clave de ordenación por categoría de los pacientes con datos en una categoría renombrada.
+	 *
+	 * @param categoryId ID de la categoría.
+	 */
+	@Transactional
+	public void categoryRenamed(String categoryId) {
+		int updated = summaryRepository.refreshFirstCategoryNames(categoryId);
+		logger.info("Orden por categoría actualizado en {} pacientes", updated);
+	}
+
+	/**
+	 * Registra un nuevo dato clínico del paciente.
+	 *
+	 * @param patientId ID del paciente.
+	 * @param status    Estado del dato añadido.
+	 * @return Versión de los datos clínicos del paciente tras el cambio.
+	 */
+	@Transactional
+	public long recordAdded(String patientId, String status) {
+		return applyChange(patientId, null, status);
+	}
+
+	/**
+	 * Registra el cambio de estado de un dato clínico del paciente.
+	 *
+	 * @param patientId ID del paciente.
+	 * @param oldStatus Estado anterior del dato.
+	 * @param newStatus Estado nuevo del dato.
+	 * @return Versión de los datos clínicos del paciente tras el cambio.
+	 */
+	@Transactional
+	public long recordStatusChange(String patientId, String oldStatus, String newStatus) {
+		return applyChange(patientId, oldStatus, newStatus);
+	}
+
+	/**
+	 * Registra la eliminación de un dato clínico del paciente.
+	 *
+	 * @param patientId ID del paciente.
+	 * @param status    Estado del dato eliminado.
+	 * @return Versión de los datos clínicos del paciente tras el cambio.
+	 */
+	@Transactional
+	public long recordRemoved(String patientId, String status) {
+		return applyChange(patientId, status, null);
+	}
+
+	/**
+	 * Recalcula desde cero el resumen de un paciente a partir de sus datos clínicos.
+	 *
+	 * @param patientId ID del paciente.
+	 */
+	@Transactional
+	public void rebuild(String patientId) {
+		PatientStatusSummary summary = computeSummary(patientId);
+		// Un recálculo también es un cambio: la versión sigue creciendo para que los índices en memoria lo detecten
+		summary.setDataVersion(summaryRepository.findDataVersion(patientId).map(version -> version + 1).orElse(0L));
+		summaryRepository.save(summary);
+	}
+
+	/**
+	 * Elimina el resumen de un paciente.
+	 *
+	 * @param patientId ID del paciente eliminado.
+	 */
+	@Transactional
+	public void remove(String patientId) {
+		summaryRepository.deleteById(patientId);
+	}
+
+	private long applyChange(String patientId, String removedStatus, String addedStatus) {
+		// Primero se asegura la fila y después se bloquea: si dos primeros cambios del paciente llegan a la vez, ninguno
+		// falla por clave duplicada y el segundo aplica su cambio sobre el resumen que deja el primero
+		summaryRepository.insertEmpty(patientId);
+		PatientStatusSummary summary = summaryRepository.findForUpdate(patientId)
+				.orElseThrow(() -> new IllegalStateException("Resumen de estados no encontrado: " + patientId));
+		if (summary.getDataVersion() == 0) {
+			// Ningún cambio contado todavía (resumen recién creado o anterior a data_version): se calcula completo, ya
+			// incluye el cambio
+			PatientStatusSummary computed = computeSummary(patientId);
+			computed.setDataVersion(1);
+			return summaryRepository.save(computed).getDataVersion();
+		}
+
+		ClinicalStatus removed = toClinicalStatus(removedStatus);
+		if (removed != null) {
+			summary.addToCount(removed, -1);
+		}
+		ClinicalStatus added = toClinicalStatus(addedStatus);
+		if (added != null) {
+			summary.addToCount(added, 1);
+		}
+		summary.setLastActivity(LocalDateTime.now());
+		// El dato puede haber cambiado de categoría: se recalcula con los índices del paciente
+		summary.setFirstCategoryName(firstCategoryName(patientId));
+		// Con la fila bloqueada, los cambios de un mismo paciente reciben versiones consecutivas
+		summary.setDataVersion(summary.getDataVersion() + 1);
+		summaryRepository.save(summary);
+		return summary.getDataVersion();
+	}
+
+	private PatientStatusSummary computeSummary(String patientId) {
+		PatientStatusSummary summary = PatientStatusSummary.builder().patientId(patientId)
+				.firstCategoryName(firstCategoryName(patientId))
+				.build();
+		for (Object[] row : summaryRepository.countClinicalDataByStatus(patientId)) {
+			ClinicalStatus status = toClinicalStatus((String) row[0]);
+			if (status != null) {
+				summary.addToCount(status, (Long) row[1]);
+			}
+			LocalDateTime lastDate = (LocalDateTime) row[2];
+			if (lastDate != null && (summary.getLastActivity() == null || lastDate.isAfter(summary.getLastActivity()))) {
+				summary.setLastActivity(lastDate);
+			}
+		}
+		return summary;
+	}
+
+	private String firstCategoryName(String patientId) {
+		String name = summaryRepository.findFirstCategoryName(patientId);
+		return name != null ? name : "";
+	}
+
+	private static ClinicalStatus toClinicalStatus(String status) {
+		if (status == null) {
+			return null;
+		}
+		try {
+			return ClinicalStatus.fromString(status);
+		} catch (IllegalArgumentException e) {
+			logger.warn("Estado clínico desconocido, no se contabiliza: {}", status);
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,95 @@
+package es.televoip.service;
+
+import java.util.Locale;
+import java.util.Objects;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.televoip.model.entities.PatientData;
+import es.televoip.projections.PatientUniqueKeys;
+import es.televoip.repository.PatientRepository;
+
+/**
+ * Comprueba que el correo y el teléfono de un paciente no estén en uso por otro paciente.
+ * <p>
+ * Los dos conflictos se resuelven con una sola consulta que lee solo las columnas de las claves únicas, sin cargar
+ * pacientes ni sus datos clínicos. La comprobación previa solo sirve para dar un mensaje claro en el caso habitual: si
+ * dos operadores guardan a la vez el mismo correo o teléfono, quien decide es la restricción única de
+ * {@code patient_data}, y {@link #translate(DataIntegrityViolationException)} convierte el error en el mismo mensaje.
+ */
+@Service
+public class PatientUniquenessService {
+
+	static final String EMAIL_IN_USE = "El correo electrónico ya está en uso por otro paciente.";
+	static final String PHONE_IN_USE = "El número de teléfono ya está en uso por otro paciente.";
+
+	private final PatientRepository patientRepository;
+
+	public PatientUniquenessService(PatientRepository patientRepository) {
+		this.patientRepository = patientRepository;
+	}
+
+	/**
+	 * Verifica que el correo y el teléfono del paciente estén libres.
+	 *
+	 * @param patient Paciente a guardar. Si ya tiene ID, sus propios valores no cuentan como conflicto.
+	 * @throws RuntimeException Si otro paciente usa el mismo correo o teléfono (se comprueba primero el correo).
+	 */
+	@Transactional(readOnly = true)
+	public void checkAvailable(PatientData patient) {
+		if (patient.getEmail() == null && patient.getPhoneNumber() == null) {
+			return;
+		}
+
+		boolean phoneInUse = false;
+		for (PatientUniqueKeys existing : patientRepository.findUniqueKeyConflicts(patient.getEmail(),
+				patient.getPhoneNumber())) {
+			if (existing.getId().equals(patient.getId())) {
+				continue;
+			}
+			if (patient.getEmail() != null && patient.getEmail().equals(existing.getEmail())) {
+				throw new RuntimeException(EMAIL_IN_USE);
+			}
+			phoneInUse |= Objects.equals(patient.getPhoneNumber(), existing.getPhoneNumber());
+		}
+		if (phoneInUse) {
+			throw new RuntimeException(PHONE_IN_USE);
+		}
+	}
+
+	/**
+	 * Convierte la violación de una restricción única de {@code patient_data} en el mismo error que
+	 * {@link #checkAvailable(PatientData)}. Cubre la carrera entre la comprobación y la inserción.
+	 *
+	 * @param e Error devuelto al guardar el paciente.
+	 * @return Error con el mensaje para el usuario, o uno genérico si no corresponde al correo ni al teléfono.
+	 */
+	public RuntimeException translate(DataIntegrityViolationException e) {
+		String violation = violationText(e);
+		if (violation.contains("email")) {
+			return new RuntimeException(EMAIL_IN_USE, e);
+		}
+		if (violation.contains("phone")) {
+			return new RuntimeException(PHONE_IN_USE, e);
+		}
+		return new RuntimeException("No se pudo guardar el paciente: datos duplicados o inválidos.", e);
+	}
+
+	// Nombre de la restricción violada y mensaje de la base de datos, que también lo incluye (con ddl-auto las
+	// restricciones pueden tener nombres generados que no mencionan la columna)
+	private static String violationText(DataIntegrityViolationException e) {
+		StringBuilder text = new StringBuilder();
+		for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+			if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+				text.append(violation.getConstraintName()).append(' ');
+				break;
+			}
+		}
+		text.append(Objects.toString(e.getMostSpecificCause().getMessage(), ""));
+		return text.toString().toLowerCase(Locale.ROOT);
+	}
+
+}
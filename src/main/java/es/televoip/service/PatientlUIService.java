@@ -3,14 +3,18 @@ package es.televoip.service;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
-import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.combobox.ComboBox;
@@ -31,24 +35,42 @@ import com.vaadin.flow.component.textfield.TextArea;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.component.upload.Upload;
 import com.vaadin.flow.component.upload.receivers.MemoryBuffer;
+import com.vaadin.flow.component.virtuallist.VirtualList;
+import com.vaadin.flow.data.renderer.LitRenderer;
 import com.vaadin.flow.data.value.ValueChangeMode;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
 
+import es.televoip.listener.ClinicalDataChangedEvent;
 import es.televoip.listener.PatientSelectionListener;
+import es.televoip.model.SelectedPatient;
 import es.televoip.model.entities.Category;
 import es.televoip.model.entities.ClinicalData;
 import es.televoip.model.entities.PatientData;
+import es.televoip.model.entities.PatientStatusSummary;
 import es.televoip.model.enums.ClinicalStatus;
+import es.televoip.model.enums.TimelineSort;
 import es.televoip.util.I18nUtil;
 import es.televoip.util.MyNotification;
-import es.televoip.util.StringUtils;
 
-@Service
+/**
+ * Lógica de interfaz de la pantalla de datos de pacientes. No es un bean de Spring: cada {@code PatientDataView} crea
+ * su propia instancia, porque guarda componentes y filtros de esa vista.
+ */
 public class PatientlUIService {
+	private static final Logger logger = LoggerFactory.getLogger(PatientlUIService.class);
+
 	private final PatientService dataManager;
 	private final CategoryService categoryManager;
+	private final PatientSelectionContext selection; // Paciente seleccionado en esta UI
+	private final ExecutorService searchExecutor; // Búsquedas de la línea de tiempo en segundo plano
+
+	// Búsqueda en segundo plano pendiente y su número de generación (solo se modifican con la sesión bloqueada)
+	private Future<?> pendingSearch;
+	private long searchGeneration;
 
 	private PatientSelectionListener patientSelectionListener; // Listener
-	private VerticalLayout patientListLayout; // Nuevo atributo
+	private VirtualList<PatientData> patientList; // Lista virtual del panel lateral
+	private PatientData selectedListItem; // Ítem resaltado actualmente en la lista
 
 	// Variables para mantener el estado de los filtros
 	private String currentStatusFilter = "all";
@@ -58,11 +80,15 @@ public class PatientlUIService {
 	private TextField searchField;
 	private ComboBox<String> statusFilter;
 
-	// Datos originales para aplicar filtros
-	private List<ClinicalData> allData;
+	// Categoría cuyos datos muestra la línea de tiempo ("all" para todas)
+	private String timelineCategoryId = CATEGORY_ALL_ID;
 
 	private VerticalLayout messageList;
 
+	// Línea de tiempo virtualizada (solo se renderizan los eventos visibles)
+	private VirtualList<ClinicalData> timelineList;
+	private Div emptyTimelineMessage;
+
 	private String currentCategoryId; // Nuevo campo para rastrear la categoría actual
 
 	// Referencia al layout de filtros
@@ -76,22 +102,59 @@ public class PatientlUIService {
 	private final I18nUtil i18nUtil;
 
 	private static final String CATEGORY_ALL_ID = "all";
-	private static String CATEGORY_ALL_NAME;
+	// Textos de "Todos" en el idioma de esta vista; se actualizan en updateTexts()
+	private String categoryAllName;
+	private Category allCategory;
 
 	private static final String STATUS_ALL_ID = "all";
-	private static String STATUS_ALL_NAME;
+
+	private static final int SEARCH_DEBOUNCE_MS = 300;
+	// Eventos de la línea de tiempo que se leen junto con el recuento (cubre lo que la lista pide al mostrarse)
+	private static final int TIMELINE_FIRST_PAGE_SIZE = 100;
+	private String statusAllName;
 
 	public void setMessageList(VerticalLayout messageList) {
 		this.messageList = messageList;
 	}
 
-	public PatientlUIService(PatientService dataManager, CategoryService categoryManager, I18nUtil i18nUtil) {
+	public PatientlUIService(PatientService dataManager, CategoryService categoryManager,
+			PatientSelectionContext selection, ExecutorService searchExecutor, I18nUtil i18nUtil) {
 		this.dataManager = dataManager;
 		this.categoryManager = categoryManager;
+		this.selection = selection;
+		this.searchExecutor = searchExecutor;
 		this.i18nUtil = i18nUtil;
 
-		CATEGORY_ALL_NAME = i18nUtil.get("clinical.category.all");
-		STATUS_ALL_NAME = i18nUtil.get("clinical.status.all");
+		categoryAllName = i18nUtil.get("clinical.category.all");
+		statusAllName = i18nUtil.get("clinical.status.all");
+	}
+
+	/**
+	 * Vuelve a traducir en el sitio los componentes ya creados tras un cambio de idioma: placeholders, las opciones
+	 * "Todos" de los filtros y el mensaje de línea de tiempo vacía. Los filtros conservan su selección.
+	 */
+	public void updateTexts() {
+		categoryAllName = i18nUtil.get("clinical.category.all");
+		String previousStatusAllName = statusAllName;
+		statusAllName = i18nUtil.get("clinical.status.all");
+
+		if (areFiltersCreated) {
+			searchField.setPlaceholder(i18nUtil.get("clinical.searchfield"));
+
+			categoryFilter.setPlaceholder(i18nUtil.get("filter.category.placeholder"));
+			allCategory.setName(categoryAllName);
+			categoryFilter.getListDataView().refreshItem(allCategory);
+
+			statusFilter.setPlaceholder(i18nUtil.get("filter.status.placeholder"));
+			String selectedStatus = statusFilter.getValue();
+			statusFilter.setItems(getStatusItems());
+			statusFilter.setValue(previousStatusAllName.equals(selectedStatus) ? statusAllName : selectedStatus);
+		}
+
+		if (emptyTimelineMessage != null) {
+			emptyTimelineMessage.setText(i18nUtil.get("message.noClinicalRecords"));
+		}
+		// Las filas de las listas no contienen textos traducidos: no hace falta volver a consultarlas
 	}
 
 	// Método setter para el listener
@@ -99,9 +162,9 @@ public class PatientlUIService {
 		this.patientSelectionListener = listener;
 	}
 
-	// Setter para el layout de la lista de pacientes
-	public void setPatientListLayout(VerticalLayout layout) {
-		this.patientListLayout = layout;
+	// Setter para la lista de pacientes
+	public void setPatientList(VirtualList<PatientData> patientList) {
+		this.patientList = patientList;
 	}
 
 	// Método para notificar la selección de un paciente
@@ -114,16 +177,15 @@ public class PatientlUIService {
 	/**
 	 * Método para mostrar datos clínicos en la interfaz con filtros de búsqueda y estado.
 	 *
-	 * @param container El contenedor donde se mostrarán los datos.
-	 * @param data      La lista de datos clínicos a mostrar.
+	 * @param container  El contenedor donde se mostrarán los datos.
+	 * @param categoryId La categoría cuyos datos se muestran ("all" para todas).
 	 */
-	@Transactional(readOnly = true)
-	public void displayClinicalData(VerticalLayout container, List<ClinicalData> newData, String categoryId) {
+	public void displayClinicalData(VerticalLayout container, String categoryId) {
 	    if (container == null)
 	        return;
 
 	    this.currentCategoryId = categoryId;
-	    this.allData = new ArrayList<>(newData);
+	    this.timelineCategoryId = categoryId;
 
 	    if (!areFiltersCreated) {
 	        createLayout(container);
@@ -169,31 +231,21 @@ public class PatientlUIService {
 	    areFiltersCreated = true;
 
 	    // Aplicar los filtros actuales
-	    if (dataManager.getCurrentUser() != null) {
+	    if (selection.hasSelection()) {
 	        applyFilters(container);
 	    }
 	}
 
 
 	// En ClinicalUIService
-	@Transactional(readOnly = true)
 	public void loadCategoryData(String category) {
-	    if (dataManager.getCurrentUser() == null) {
+	    if (!selection.hasSelection()) {
 	        showMessageWarning(i18nUtil.get("message.selectPatientFirst"));
 	        return;
 	    }
 
-	    List<ClinicalData> data;
-	    if ("all".equals(category)) {
-	        data = dataManager.getAllClinicalData(dataManager.getCurrentUser().getPhoneNumber());
-	    } else {
-	        data = dataManager.getClinicalData(dataManager.getCurrentUser().getPhoneNumber(), category);
-	    }
-
-	    // Actualizar los datos originales
-	    this.allData = new ArrayList<>(data);
-
-	    // Aplicar los filtros actuales (estado y búsqueda)
+	    // La línea de tiempo consulta la base de datos con la categoría y los filtros actuales (estado y búsqueda)
+	    this.timelineCategoryId = category;
 	    applyFilters(messageList);
 	}
 
@@ -210,9 +262,9 @@ public class PatientlUIService {
 	    List<Category> activeCategories = new ArrayList<>(categoryManager.getActiveCategories());
 
 	    // Crear la categoría ficticia "Todos"
-	    Category allCategory = Category.builder()
+	    allCategory = Category.builder()
 	            .id(CATEGORY_ALL_ID)
-	            .name(CATEGORY_ALL_NAME)
+	            .name(categoryAllName)
 	            .isActive(true) // Puede ser activo o no, según prefieras
 	            .build();
 
@@ -235,7 +287,7 @@ public class PatientlUIService {
 	            filterCategory.addClassName("filter-active");
 	        }
 
-	        if (dataManager.getCurrentUser() != null) {
+	        if (selection.hasSelection()) {
 	            loadCategoryData(currentCategoryId);
 	        }
 	    });
@@ -252,15 +304,7 @@ public class PatientlUIService {
 	private ComboBox<String> createStatusFilter() {
 	    ComboBox<String> filterStatus = new ComboBox<>();
 
-	    // Crear la lista de estados, añadiendo "Todos" como primera opción
-	    List<String> estados = new ArrayList<>();
-	    estados.add(STATUS_ALL_NAME); // "Todos" localizado
-	    estados.addAll(Arrays.stream(ClinicalStatus.values())
-	                  .map(ClinicalStatus::getDisplayName)
-	                  .collect(Collectors.toList())
-	    );
-
-	    filterStatus.setItems(estados);
+	    filterStatus.setItems(getStatusItems());
 	    filterStatus.setPlaceholder(i18nUtil.get("filter.status.placeholder"));
 	    filterStatus.addClassName("custom-status-filter");
 	    filterStatus.setWidth("240px");
@@ -273,7 +317,7 @@ public class PatientlUIService {
 	    // Listener para manejar la selección
 	    filterStatus.addValueChangeListener(event -> {
 	        String newValue = event.getValue();
-	        if (newValue == null || STATUS_ALL_NAME.equals(newValue)) {
+	        if (newValue == null || statusAllName.equals(newValue)) {
 	            currentStatusFilter = "all"; // "all" representa "Todos"
 	            filterStatus.removeClassName("filter-active");
 	        } else {
@@ -281,7 +325,7 @@ public class PatientlUIService {
 	            filterStatus.addClassName("filter-active");
 	        }
 
-	        if (dataManager.getCurrentUser() != null) {
+	        if (selection.hasSelection()) {
 	            applyFilters(messageList);
 	        }
 	    });
@@ -294,12 +338,25 @@ public class PatientlUIService {
 	    return filterStatus;
 	}
 
+	// Lista de estados del filtro, con "Todos" (localizado) como primera opción
+	private List<String> getStatusItems() {
+	    List<String> estados = new ArrayList<>();
+	    estados.add(statusAllName);
+	    estados.addAll(Arrays.stream(ClinicalStatus.values())
+	                  .map(ClinicalStatus::getDisplayName)
+	                  .collect(Collectors.toList())
+	    );
+	    return estados;
+	}
+
 
 	private TextField createSearchField() {
 		TextField field = new TextField();
 		field.setPlaceholder(i18nUtil.get("clinical.searchfield"));
 		field.setWidth("260px");
-		field.setValueChangeMode(ValueChangeMode.EAGER);
+		// El navegador solo envía el valor cuando el usuario deja de escribir (debounce)
+		field.setValueChangeMode(ValueChangeMode.LAZY);
+		field.setValueChangeTimeout(SEARCH_DEBOUNCE_MS);
 		field.addClassName("custom-status-filter"); // Misma clase que el combo
 		field.setClearButtonVisible(true); // Opcional: mostrar botón para limpiar la selección
 
@@ -313,7 +370,7 @@ public class PatientlUIService {
 				field.removeClassName("filter-active");
 			}
 
-			applyFilters(messageList);
+			applyFiltersAsync(messageList);
 		});
 
 		return field;
@@ -324,138 +381,285 @@ public class PatientlUIService {
 	}
 
 	/**
-	 * Aplica los filtros actuales (estado y búsqueda) a los datos clínicos y actualiza la UI.
+	 * Aplica los filtros actuales (categoría, estado y búsqueda) a la línea de tiempo. Los filtros y la ordenación se
+	 * resuelven en la base de datos; la lista virtual solo pide las páginas que se están mostrando.
 	 *
 	 * @param container El contenedor donde se mostrarán los datos.
 	 */
-	@Transactional(readOnly = true)
 	private void applyFilters(VerticalLayout container) {
-	    // Normalizar el término de búsqueda una sola vez
-	    String normalizedSearchTerm = StringUtils.removeAccents(currentSearchTerm.toLowerCase());
-
-	    // Filtrar los datos clínicos
-	    List<ClinicalData> filteredData = allData.stream().filter(cd -> {
-	        boolean matchesStatus = currentStatusFilter.equals("all")
-	                || (cd.getStatus() != null && cd.getStatus().equalsIgnoreCase(currentStatusFilter));
-
-	        boolean matchesSearch = currentSearchTerm.isEmpty()
-	                || (cd.getTitle() != null
-	                        && StringUtils.removeAccents(cd.getTitle().toLowerCase()).contains(normalizedSearchTerm))
-	                || (cd.getDescription() != null
-	                        && StringUtils.removeAccents(cd.getDescription().toLowerCase()).contains(normalizedSearchTerm));
-	        return matchesStatus && matchesSearch;
-	    }).sorted(Comparator.comparingInt((ClinicalData cd) -> getStatusPriority(cd.getStatus()))
-	            .thenComparing(ClinicalData::getDate, Comparator.nullsLast(Comparator.reverseOrder()))
-	            .thenComparing(cd -> cd.getCategory().getDisplayOrder())) // Ahora podemos acceder directamente
-	            .collect(Collectors.toList());
-
-	    // Crear una línea de tiempo
-	    VerticalLayout timeline = new VerticalLayout();
-	    timeline.addClassName("clinical-timeline");
-	    timeline.setPadding(false);
-	    timeline.setSpacing(false);
-	    timeline.setWidth("97%");
-
-	    if (filteredData.isEmpty()) {
-	        Div emptyMessage = new Div();
-	        emptyMessage.setText("No hay registros clínicos para mostrar.");
-	        emptyMessage.addClassName("empty-message");
-	        timeline.add(emptyMessage);
-	    } else {
-	        filteredData.forEach(item -> {
-	            // Crear un contenedor para cada evento
-	            HorizontalLayout eventLayout = new HorizontalLayout();
-	            eventLayout.setWidthFull(); // Asegura que ocupa todo el ancho disponible
-	            eventLayout.setSpacing(false);
-	            eventLayout.setPadding(false);
-	            eventLayout.setAlignItems(Alignment.START);
-	            eventLayout.addClassName("timeline-event");
-
-	            // Asignar clase CSS según el estado
-	            switch (item.getStatus()) {
-	                case "Urgente":
-	                    eventLayout.addClassName("status-urgente");
-	                    break;
-	                case "Pendiente":
-	                    eventLayout.addClassName("status-pendiente");
-	                    break;
-	                case "En curso":
-	                    eventLayout.addClassName("status-en-curso");
-	                    break;
-	                case "Completado":
-	                    eventLayout.addClassName("status-completado");
-	                    break;
-	                default:
-	                    eventLayout.addClassName("status-unknown");
-	                    break;
+	    // Cualquier búsqueda en segundo plano pendiente queda obsoleta
+	    cancelPendingSearch();
+	    if (container == null) {
+	        return;
+	    }
+
+	    // La línea de tiempo es una lista virtual: solo se renderizan (en servidor y cliente) los eventos visibles
+	    attachTimeline(container);
+
+	    String patientId = selection.getPatientId();
+	    if (patientId == null) {
+	        timelineList.setItems(new ArrayList<>());
+	        timelineList.setVisible(false);
+	        emptyTimelineMessage.setVisible(true);
+	        return;
+	    }
+
+	    // Copiar los filtros actuales para que las páginas pedidas más tarde usen los mismos criterios
+	    String categoryId = CATEGORY_ALL_ID.equals(timelineCategoryId) ? null : timelineCategoryId;
+	    List<String> statuses = STATUS_ALL_ID.equals(currentStatusFilter) ? List.of() : List.of(currentStatusFilter);
+	    String searchText = currentSearchTerm;
+
+	    long total = dataManager.countTimeline(patientId, categoryId, statuses, searchText);
+	    List<ClinicalData> firstPage = fetchFirstTimelinePage(patientId, categoryId, statuses, searchText, total);
+	    showTimeline(patientId, categoryId, statuses, searchText, total, firstPage);
+	}
+
+	/**
+	 * Igual que {@link #applyFilters(VerticalLayout)}, pero el recuento y la primera página se consultan en segundo plano
+	 * y el resultado se envía al navegador con server push: la búsqueda no se ejecuta con la sesión bloqueada. Si llega una búsqueda más reciente, la anterior se descarta: si aún no había
+	 * empezado se cancela, y si ya estaba en curso su resultado se ignora.
+	 *
+	 * @param container El contenedor donde se mostrarán los datos.
+	 */
+	private void applyFiltersAsync(VerticalLayout container) {
+	    UI ui = UI.getCurrent();
+	    if (container == null || ui == null || !selection.hasSelection()) {
+	        applyFilters(container);
+	        return;
+	    }
+
+	    cancelPendingSearch();
+	    attachTimeline(container);
+
+	    String patientId = selection.getPatientId();
+	    String categoryId = CATEGORY_ALL_ID.equals(timelineCategoryId) ? null : timelineCategoryId;
+	    List<String> statuses = STATUS_ALL_ID.equals(currentStatusFilter) ? List.of() : List.of(currentStatusFilter);
+	    String searchText = currentSearchTerm;
+	    long generation = searchGeneration;
+
+	    // No se interrumpe una consulta ya en curso (cerraría la conexión JDBC); su resultado simplemente se descarta
+	    pendingSearch = searchExecutor.submit(() -> {
+	        long total;
+	        List<ClinicalData> firstPage;
+	        try {
+	            total = dataManager.countTimeline(patientId, categoryId, statuses, searchText);
+	            firstPage = fetchFirstTimelinePage(patientId, categoryId, statuses, searchText, total);
+	        } catch (RuntimeException e) {
+	            logger.error("Error en la búsqueda de la línea de tiempo del paciente {}", patientId, e);
+	            accessIfCurrent(ui, generation, this::showTimelineError);
+	            return;
+	        }
+
+	        accessIfCurrent(ui, generation,
+	                () -> showTimeline(patientId, categoryId, statuses, searchText, total, firstPage));
+	    });
+	}
+
+	// Aplica el resultado de una búsqueda en segundo plano si sigue siendo la más reciente
+	private void accessIfCurrent(UI ui, long generation, Runnable action) {
+	    try {
+	        ui.access(() -> {
+	            if (generation == searchGeneration) {
+	                action.run();
 	            }
+	        });
+	    } catch (UIDetachedException e) {
+	        // La vista se ha cerrado mientras se buscaba: no hay nada que actualizar
+	    }
+	}
 
-	            // Punto de la línea de tiempo (icono de estado + texto)
-	            Span statusIcon = createStatusIconWithText(item.getStatus());
-	            statusIcon.addClassName("timeline-status-icon");
+	// La búsqueda ha fallado: no se dejan a la vista los resultados de la anterior
+	private void showTimelineError() {
+	    timelineList.setItems(new ArrayList<>());
+	    timelineList.setVisible(false);
+	    emptyTimelineMessage.setVisible(false);
+	    MyNotification.showError("No se pudo cargar la línea de tiempo. Inténtalo de nuevo.");
+	}
 
-	            // Detalles del evento
-	            VerticalLayout eventDetails = new VerticalLayout();
-	            eventDetails.setPadding(true);
-	            eventDetails.setSpacing(false);
-	            eventDetails.addClassName("timeline-details");
+	/**
+	 * Descarta la búsqueda en segundo plano pendiente, si la hay. Se llama también al cerrar la vista.
+	 */
+	public void cancelPendingSearch() {
+	    searchGeneration++;
+	    if (pendingSearch != null) {
+	        pendingSearch.cancel(false);
+	        pendingSearch = null;
+	    }
+	}
 
-	            // Manejar 'null' en la fecha
-	            String dateText = (item.getDate() != null) ? item.getDate().toLocalDate().toString()
-	                    : "Fecha no disponible";
-	            Span date = new Span(dateText);
-	            date.addClassName("timeline-date");
+	// Primeros eventos de la línea de tiempo, los que la lista pide al mostrarse
+	private List<ClinicalData> fetchFirstTimelinePage(String patientId, String categoryId, List<String> statuses,
+	        String searchText, long total) {
+	    if (total == 0) {
+	        return List.of();
+	    }
+	    return dataManager.getTimelinePage(patientId, categoryId, statuses, searchText, TimelineSort.PRIORITY,
+	            PageRequest.of(0, TIMELINE_FIRST_PAGE_SIZE)).getContent();
+	}
 
-	            Span title = new Span(item.getTitle());
-	            title.addClassName("timeline-title");
+	private void showTimeline(String patientId, String categoryId, List<String> statuses, String searchText,
+	        long total, List<ClinicalData> firstPage) {
+	    int size = (int) Math.min(total, Integer.MAX_VALUE);
 
-	            Span description = new Span(item.getDescription());
-	            description.addClassName("timeline-description");
+	    // Las filas ya leídas se sirven de memoria; solo al desplazarse más allá se consulta la base de datos
+	    timelineList.setItems(query -> {
+	        int end = query.getOffset() + query.getLimit();
+	        if (end <= firstPage.size() || firstPage.size() >= size) {
+	            return firstPage.subList(Math.min(query.getOffset(), firstPage.size()), Math.min(end, firstPage.size()))
+	                    .stream();
+	        }
+	        return dataManager.getTimelinePage(patientId, categoryId, statuses, searchText, TimelineSort.PRIORITY,
+	                VaadinSpringDataHelpers.toSpringPageRequest(query)).stream();
+	    }, query -> size);
 
-	            Button detailsButton = new Button("Ver detalles", new Icon(VaadinIcon.INFO_CIRCLE));
-	            detailsButton.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
-	            detailsButton.addClickListener(e -> openDetailsDialog(item));
+	    boolean isEmpty = total == 0;
+	    timelineList.setVisible(!isEmpty);
+	    emptyTimelineMessage.setVisible(isEmpty);
+	}
 
-	            eventDetails.add(date, title, description, detailsButton);
+	/**
+	 * Crea (una sola vez) la lista virtual de la línea de tiempo y la añade al contenedor si aún no está en él.
+	 *
+	 * @param container El contenedor donde se muestra la línea de tiempo.
+	 */
+	private void attachTimeline(VerticalLayout container) {
+	    if (timelineList == null) {
+	        timelineList = new VirtualList<>();
+	        timelineList.addClassName("clinical-timeline");
+	        timelineList.setWidth("97%");
+	        timelineList.setRenderer(createTimelineRenderer());
+
+	        emptyTimelineMessage = new Div();
+	        emptyTimelineMessage.setText(i18nUtil.get("message.noClinicalRecords"));
+	        emptyTimelineMessage.addClassName("empty-message");
+	    }
 
-	            // Contenedor para la información de categoría (derecha)
-	            Div categoryInfo = new Div();
-	            categoryInfo.addClassName("timeline-category-info");
+	    if (!timelineList.getParent().filter(parent -> parent == container).isPresent()) {
+	        container.add(timelineList, emptyTimelineMessage);
+	        container.setFlexGrow(1, timelineList);
+	    }
+	}
 
-	            // Ahora accedemos directamente a la categoría
-	            Optional.ofNullable(item.getCategory()).ifPresent(category -> {
-	                try {
-	                    // Forzar la inicialización del proxy
-	                    category.getIcon();
+	/**
+	 * Plantilla Lit de un evento de la línea de tiempo. Sustituye al árbol de layouts que se creaba por cada evento: el
+	 * servidor solo envía las propiedades de las filas visibles.
+	 *
+	 * @return Renderer de los eventos de la línea de tiempo.
+	 */
+	private LitRenderer<ClinicalData> createTimelineRenderer() {
+	    return LitRenderer.<ClinicalData>of(
+	            "<div class=\"timeline-event ${item.statusClass} ${item.categoryClass}\">"
+	            + "  <span class=\"status-icon-container timeline-status-icon ${item.statusIconClass}\" title=\"${item.statusName}\">"
+	            + "    <vaadin-icon icon=\"${item.statusIcon}\"></vaadin-icon><span>${item.statusName}</span>"
+	            + "  </span>"
+	            + "  <div class=\"timeline-details\">"
+	            + "    <span class=\"timeline-date\">${item.date}</span>"
+	            + "    <span class=\"timeline-title\">${item.title}</span>"
+	            + "    <span class=\"timeline-description\">${item.description}</span>"
+	            + "    <vaadin-button theme=\"tertiary\" @click=\"${openDetails}\">"
+	            + "      <vaadin-icon icon=\"vaadin:info-circle\" slot=\"prefix\"></vaadin-icon>Ver detalles"
+	            + "    </vaadin-button>"
+	            + "  </div>"
+	            + "  <div class=\"timeline-category-info\" ?hidden=\"${!item.categoryName}\">"
+	            + "    <span class=\"timeline-category-content\">"
+	            + "      <vaadin-icon class=\"timeline-category-icon\" icon=\"${item.categoryIcon}\"></vaadin-icon>"
+	            + "      <span class=\"timeline-category-name\">${item.categoryName}</span>"
+	            + "    </span>"
+	            + "  </div>"
+	            + "</div>")
+	            .withProperty("statusClass", item -> getStatusEventClass(item.getStatus()))
+	            .withProperty("statusIconClass", item -> getStatusIconClass(item.getStatus()))
+	            .withProperty("statusIcon", item -> toIconName(getStatusVaadinIcon(item.getStatus())))
+	            .withProperty("statusName", item -> getStatusDisplayName(item.getStatus()))
+	            // Manejar 'null' en la fecha
+	            .withProperty("date", item -> item.getDate() != null ? item.getDate().toLocalDate().toString()
+	                    : "Fecha no disponible")
+	            .withProperty("title", ClinicalData::getTitle)
+	            .withProperty("description", ClinicalData::getDescription)
+	            .withProperty("categoryClass", item -> item.getCategory() != null
+	                    ? "category-" + item.getCategory().getId().toLowerCase() : "")
+	            .withProperty("categoryName", item -> item.getCategory() != null ? item.getCategory().getName() : "")
+	            .withProperty("categoryIcon", item -> getCategoryIconName(item.getCategory()))
+	            .withFunction("openDetails", this::openDetailsDialog);
+	}
 
-	                    VaadinIcon vaadinIcon = VaadinIcon.valueOf(category.getIcon());
-	                    Icon icon = vaadinIcon.create();
-	                    icon.addClassName("timeline-category-icon");
+	private String getCategoryIconName(Category category) {
+	    if (category == null || category.getIcon() == null) {
+	        return "";
+	    }
+	    try {
+	        return toIconName(VaadinIcon.valueOf(category.getIcon()));
+	    } catch (IllegalArgumentException e) {
+	        System.err.println("Icono inválido para categoría: " + category.getIcon());
+	        return "";
+	    }
+	}
 
-	                    Span categoryName = new Span(category.getName());
-	                    categoryName.addClassName("timeline-category-name");
+	// Nombre del icono para <vaadin-icon>, p. ej. VaadinIcon.CHECK_CIRCLE -> "vaadin:check-circle"
+	private static String toIconName(VaadinIcon icon) {
+	    return "vaadin:" + icon.name().toLowerCase().replace('_', '-');
+	}
 
-	                    HorizontalLayout categoryContent = new HorizontalLayout(icon, categoryName);
-	                    categoryContent.addClassName("timeline-category-content");
+	/**
+	 * Clase CSS del evento según su estado (colores de fondo de la línea de tiempo).
+	 *
+	 * @param status El estado clínico.
+	 * @return Clase CSS del evento.
+	 */
+	private String getStatusEventClass(String status) {
+	    if (status == null) {
+	        return "status-unknown";
+	    }
+	    switch (status) {
+	        case "Urgente":
+	            return "status-urgente";
+	        case "Pendiente":
+	            return "status-pendiente";
+	        case "En curso":
+	            return "status-en-curso";
+	        case "Completado":
+	            return "status-completado";
+	        default:
+	            return "status-unknown";
+	    }
+	}
 
-	                    categoryInfo.add(categoryContent);
+	private String getStatusIconClass(String status) {
+	    ClinicalStatus clinicalStatus = toClinicalStatus(status);
+	    return clinicalStatus != null ? "status-" + clinicalStatus.name().toLowerCase() : "status-unknown";
+	}
 
-	                    String categoryClass = "category-" + category.getId().toLowerCase();
-	                    eventLayout.addClassName(categoryClass);
-	                } catch (IllegalArgumentException e) {
-	                    System.err.println("Icono inválido para categoría: " + category.getIcon());
-	                }
-	            });
-	            eventLayout.add(statusIcon, eventDetails, categoryInfo);
-	            timeline.add(eventLayout);
-	        });
+	private String getStatusDisplayName(String status) {
+	    ClinicalStatus clinicalStatus = toClinicalStatus(status);
+	    return clinicalStatus != null ? clinicalStatus.getDisplayName() : "Desconocido";
+	}
+
+	private VaadinIcon getStatusVaadinIcon(String status) {
+	    ClinicalStatus clinicalStatus = toClinicalStatus(status);
+	    if (clinicalStatus == null) {
+	        return VaadinIcon.QUESTION_CIRCLE;
+	    }
+	    switch (clinicalStatus) {
+	        case URGENTE:
+	            return VaadinIcon.MEGAPHONE;
+	        case PENDIENTE:
+	            return VaadinIcon.CLOCK;
+	        case EN_CURSO:
+	            return VaadinIcon.HOURGLASS;
+	        case COMPLETADO:
+	            return VaadinIcon.CHECK_CIRCLE;
+	        default:
+	            return VaadinIcon.QUESTION_CIRCLE;
 	    }
+	}
 
-	    // Eliminar la línea de tiempo anterior si existe y añadir la nueva
-	    container.getChildren()
-	            .filter(component -> component.hasClassName("clinical-timeline"))
-	            .forEach(container::remove);
-	    container.add(timeline);
+	private ClinicalStatus toClinicalStatus(String status) {
+	    try {
+	        return status != null ? ClinicalStatus.fromString(status) : null;
+	    } catch (IllegalArgumentException e) {
+	        System.err.println("Error al mapear el estado: " + status);
+	        return null;
+	    }
 	}
 
 	/**
@@ -515,91 +719,6 @@ public class PatientlUIService {
 		return iconContainer;
 	}
 
-	private Span createStatusIconWithText(String status) {
-		ClinicalStatus clinicalStatus;
-		try {
-			clinicalStatus = ClinicalStatus.fromString(status);
-		} catch (IllegalArgumentException e) {
-			clinicalStatus = null;
-			System.err.println("Error al mapear el estado: " + status);
-		}
-
-		Icon icon;
-		String tooltip;
-		String displayName;
-
-		if (clinicalStatus != null) {
-			switch (clinicalStatus) {
-			case URGENTE:
-				icon = VaadinIcon.MEGAPHONE.create();
-				tooltip = "Urgente";
-				displayName = "Urgente";
-				break;
-			case PENDIENTE:
-				icon = VaadinIcon.CLOCK.create();
-				tooltip = "Pendiente";
-				displayName = "Pendiente";
-				break;
-			case EN_CURSO:
-				icon = VaadinIcon.HOURGLASS.create();
-				tooltip = "En curso";
-				displayName = "En curso";
-				break;
-			case COMPLETADO:
-				icon = VaadinIcon.CHECK_CIRCLE.create();
-				tooltip = "Completado";
-				displayName = "Completado";
-				break;
-			default:
-				icon = VaadinIcon.QUESTION_CIRCLE.create();
-				tooltip = "Desconocido";
-				displayName = "Desconocido";
-				break;
-			}
-		} else {
-			icon = VaadinIcon.QUESTION_CIRCLE.create();
-			tooltip = "Desconocido";
-			displayName = "Desconocido";
-		}
-
-		// Crear el contenedor del icono y el texto
-		Span iconContainer = new Span(icon, new Span(displayName));
-		iconContainer.addClassName("status-icon-container");
-
-		// Añadir clases según el estado
-		if (clinicalStatus != null) {
-			iconContainer.addClassName("status-" + clinicalStatus.name().toLowerCase());
-		} else {
-			iconContainer.addClassName("status-unknown");
-		}
-
-		// Añadir tooltip al contenedor completo
-		iconContainer.getElement().setAttribute("title", tooltip);
-
-		return iconContainer;
-	}
-
-	/**
-	 * Asigna una prioridad numérica a cada estado clínico. Menor número indica mayor prioridad.
-	 *
-	 * @param status El estado clínico.
-	 * @return La prioridad numérica del estado.
-	 */
-	private int getStatusPriority(String status) {
-		switch (status) {
-		case "Urgente":
-			return 0; // Prioridad más alta
-		case "Pendiente":
-			return 1; // Mayor prioridad
-		case "En curso":
-			return 2;
-		case "Completado":
-			return 3; // Menor prioridad
-		default:
-			return 4; // Para estados no definidos
-		}
-	}
-
 	/**
 	 * Método para abrir el diálogo de detalles de un dato clínico. Permite editar y eliminar el dato clínico seleccionado.
 	 *
@@ -677,25 +796,20 @@ public class PatientlUIService {
 			//}
 
 			// Guardar los cambios en el backend
-			dataManager.updateClinicalData(data);
-
-			// Refrescar el ítem del paciente
-		   PatientData currentPatient = dataManager.getCurrentUser();
-		   if (currentPatient != null) {
-		        currentPatient = dataManager.getPatientWithClinicalData(currentPatient.getPhoneNumber());
-		        refreshPatientItem(currentPatient);
-
-		        // Recargar los datos del timeline
-		        clearPreviousData(); // Limpiar datos actuales
-		        List<ClinicalData> updatedData;
-		        if ("all".equals(currentCategoryId)) {
-		            updatedData = dataManager.getAllClinicalData(currentPatient.getPhoneNumber());
-		        } else {
-		            updatedData = dataManager.getClinicalData(currentPatient.getPhoneNumber(), currentCategoryId);
-		        }
-		        this.allData = new ArrayList<>(updatedData); // Actualizar allData
-		        applyFilters(messageList); // Volver a aplicar filtros
-		    }
+			SelectedPatient currentPatient = selection.getSelectedPatient();
+			if (currentPatient == null) {
+				showMessageWarning(i18nUtil.get("message.selectPatientFirst"));
+				return;
+			}
+			try {
+				dataManager.updateClinicalData(currentPatient.getId(), data);
+			} catch (OptimisticLockingFailureException e) {
+				dialog.close();
+				showConcurrentModification();
+				return;
+			}
+
+			// El ítem del paciente y el timeline se actualizan al recibir el cambio (ver onClinicalDataChanged)
 
 		    dialog.close();
 		    showMessage("Datos actualizados exitosamente.");
@@ -718,52 +832,26 @@ public class PatientlUIService {
 			HorizontalLayout confirmButtons = new HorizontalLayout();
 
 			Button confirmDelete = new Button("Eliminar", e -> {
-			    System.out.println("=== Iniciando eliminación desde UI ===");
-			    System.out.println("Datos a eliminar:");
-			    System.out.println("- Categoría: " + data.getCategory().getName());
-			    System.out.println("- Título: " + data.getTitle());
-
-			    dataManager.deleteClinicalData(data.getCategory(), data.getTitle());
-
-			    // Refrescar el ítem del paciente
-			    PatientData currentPatient = dataManager.getCurrentUser();
-			    if (currentPatient != null) {
-			        System.out.println("Actualizando UI después de eliminación");
-			        
-			        // Obtener datos actualizados
-			        currentPatient = dataManager.getPatientWithClinicalData(currentPatient.getPhoneNumber());
-			        System.out.println("Datos actualizados obtenidos para: " + currentPatient.getName());
-			        System.out.println("Cantidad de datos clínicos: " + 
-			                          currentPatient.getClinicalDataList().size());
-
-			        refreshPatientItem(currentPatient);
-			        System.out.println("Item del paciente actualizado en la UI");
-
-			        // Recargar timeline
-			        System.out.println("Recargando timeline...");
-			        clearPreviousData();
-			        
-			        List<ClinicalData> updatedData;
-			        if ("all".equals(currentCategoryId)) {
-			            System.out.println("Cargando todos los datos clínicos");
-			            updatedData = dataManager.getAllClinicalData(currentPatient.getPhoneNumber());
-			        } else {
-			            System.out.println("Cargando datos de categoría: " + currentCategoryId);
-			            updatedData = dataManager.getClinicalData(currentPatient.getPhoneNumber(), currentCategoryId);
-			        }
-			        
-			        System.out.println("Datos obtenidos para timeline: " + updatedData.size());
-			        this.allData = new ArrayList<>(updatedData);
-			        applyFilters(messageList);
-			        System.out.println("Timeline actualizado");
-			    } else {
-			        System.out.println("ERROR: No hay paciente actual seleccionado");
+			    SelectedPatient currentPatient = selection.getSelectedPatient();
+			    if (currentPatient == null) {
+			        confirmDialog.close();
+			        showMessageWarning("No hay ningún paciente seleccionado.");
+			        return;
+			    }
+
+			    try {
+			        dataManager.deleteClinicalData(currentPatient.getId(), data);
+			    } catch (OptimisticLockingFailureException ex) {
+			        confirmDialog.close();
+			        dialog.close();
+			        showConcurrentModification();
+			        return;
 			    }
+			    // El ítem del paciente y el timeline se actualizan al recibir el cambio (ver onClinicalDataChanged)
 
 			    confirmDialog.close();
 			    dialog.close();
 			    showMessage("Dato clínico eliminado exitosamente.");
-			    System.out.println("=== Proceso de UI completado ===");
 			});
 
 			confirmDelete.addThemeVariants(ButtonVariant.LUMO_ERROR);
@@ -797,7 +885,7 @@ public class PatientlUIService {
 	 */
 	public void openAddClinicalDataDialog() {
 		// Verificar si hay un paciente seleccionado
-		PatientData selectedPatient = dataManager.getCurrentUser();
+		SelectedPatient selectedPatient = selection.getSelectedPatient();
 		if (selectedPatient == null) {
 			showMessageWarning("Seleccione un paciente primero.");
 			return;
@@ -880,19 +968,8 @@ public class PatientlUIService {
 			// Añadir el nuevo dato clínico al dataManager
 			dataManager.addClinicalData(selectedPatient.getPhoneNumber(), newData);
 
-			// Refrescar los datos clínicos en la línea de tiempo usando la categoría actual
-			if (messageList != null && currentCategoryId != null) { // Verificar que currentCategoryId esté definido
-				List<ClinicalData> updatedData;
-				if ("all".equals(currentCategoryId)) {
-					updatedData = dataManager.getAllClinicalData(selectedPatient.getPhoneNumber());
-				} else {
-					updatedData = dataManager.getClinicalData(selectedPatient.getPhoneNumber(), currentCategoryId);
-				}
-				displayClinicalData(messageList, updatedData, currentCategoryId); // Pasar categoryId
-			}
-
-			// Actualizar la lista de pacientes para reflejar los nuevos conteos de estados
-			refreshPatientItem(selectedPatient);
+			// La línea de tiempo y los conteos de estados del paciente se actualizan al recibir el cambio
+			// (ver onClinicalDataChanged)
 
 			showMessage("Nuevo dato clínico añadido exitosamente.");
 			addDialog.close();
@@ -923,7 +1000,6 @@ public class PatientlUIService {
 	 * @param patient El paciente para el cual crear el ítem.
 	 * @return Un HorizontalLayout que representa el ítem del paciente.
 	 */
-	@Transactional(readOnly = true) // Para consultas
 	public HorizontalLayout createPatientListItem(PatientData patient) {
 	    // Layout principal del ítem
 	    HorizontalLayout patientItem = new HorizontalLayout();
@@ -969,38 +1045,19 @@ public class PatientlUIService {
 	    statusIconsContainer.setAlignItems(Alignment.CENTER);
 	    statusIconsContainer.addClassName("status-icons-container");
 	   
-	    // Analizar estados de los datos del paciente
-	    if (patient.getClinicalDataList() != null && !patient.getClinicalDataList().isEmpty()) {
-	        System.out.println("Analizando estados de datos clínicos para el paciente: " + phoneNumber);
-
-	        // Agrupar por ClinicalStatus en lugar de String
-	        Map<ClinicalStatus, Long> statusCounts = patient.getClinicalDataList().stream()
-	                .filter(data -> data.getStatus() != null)
-	                .map(data -> {
-	                    try {
-	                        return ClinicalStatus.fromString(data.getStatus());
-	                    } catch (IllegalArgumentException e) {
-	                        System.err.println("Estado desconocido en datos clínicos: " + data.getStatus());
-	                        return null; // Puedes manejar estados desconocidos de otra manera si lo deseas
-	                    }
-	                })
-	                .filter(cs -> cs != null)
-	                .collect(Collectors.groupingBy(cs -> cs, Collectors.counting()));
-
-	        System.out.println("Contadores de estado para el paciente " + phoneNumber + ": " + statusCounts);
-
+	    // Contadores de estado precalculados (patient_status_summary): no se recorre la lista de datos clínicos
+	    PatientStatusSummary statusSummary = patient.getStatusSummary();
+	    if (statusSummary != null) {
 	        // Crear icono y contador para cada estado existente
 	        for (ClinicalStatus status : ClinicalStatus.values()) {
-	            if (statusCounts.containsKey(status)) {
-	                String statusDisplayName = status.getDisplayName();
-	                Span statusIcon = createStatusIcon(statusDisplayName);
-	                Span statusCount = new Span(statusCounts.get(status).toString());
+	            long count = statusSummary.getCount(status);
+	            if (count > 0) {
+	                Span statusIcon = createStatusIcon(status.getDisplayName());
+	                Span statusCount = new Span(String.valueOf(count));
 	                statusCount.addClassName("status-count");
 	                statusIconsContainer.add(statusIcon, statusCount);
 	            }
 	        }
-	    } else {
-	        System.err.println("El paciente " + phoneNumber + " no tiene datos clínicos.");
 	    }
 
 	    // Crear el botón de añadir datos
@@ -1012,7 +1069,7 @@ public class PatientlUIService {
 	    // Click listener para el botón de añadir
 	    addDataButton.addClickListener(e -> {
 	        selectPatient(patient);
-	        highlightSelectedPatient(patientItem);
+	        highlightSelectedPatient(patient);
 	        openAddClinicalDataDialog();
 	    });
 
@@ -1031,14 +1088,15 @@ public class PatientlUIService {
 	    patientItem.expand(patientInfo); // Permite que patientInfo ocupe el espacio disponible
 	    
 	    // Verificar si este paciente está seleccionado y aplicar la clase
-	    if (dataManager.getCurrentUser() != null && patient.getPhoneNumber().equals(dataManager.getCurrentUser().getPhoneNumber())) {
+	    if (selection.isSelected(patient)) {
 	        patientItem.addClassName("patient-selected");
+	        selectedListItem = patient;
 	    }
 
 	    // Manejar selección del paciente
 	    patientItem.addClickListener(e -> {
 	        selectPatient(patient);
-	        highlightSelectedPatient(patientItem);
+	        highlightSelectedPatient(patient);
 	        if (patientSelectionListener != null) {
 	            patientSelectionListener.onPatientSelected(patient);
 	        }
@@ -1053,69 +1111,64 @@ public class PatientlUIService {
 	 * @param patient El paciente seleccionado.
 	 */
 	private void selectPatient(PatientData patient) {
-		dataManager.setCurrentUser(patient.getPhoneNumber());
+		// Solo se guarda el ID y un resumen; no se vuelve a consultar el paciente
+		selection.select(patient);
 		// Puedes añadir aquí más lógica cuando se selecciona un paciente
 	}
 
 	/**
-	 * Resalta el ítem del paciente seleccionado y elimina el resaltado de los demás.
+	 * Resalta el ítem del paciente seleccionado y elimina el resaltado del anterior. Solo se vuelven a renderizar
+	 * esas dos filas de la lista virtual.
 	 *
-	 * @param selectedItem El ítem seleccionado para resaltar.
+	 * @param patient El paciente seleccionado para resaltar.
 	 */
-	private void highlightSelectedPatient(HorizontalLayout selectedItem) {
-		// Remover highlight de todos los items
-		selectedItem.getParent().get().getChildren().forEach(component -> component.removeClassName("patient-selected"));
+	private void highlightSelectedPatient(PatientData patient) {
+		if (patientList == null) {
+			return;
+		}
+
+		PatientData previous = selectedListItem;
+		selectedListItem = patient;
 
-		// Añadir highlight al item seleccionado
-		selectedItem.addClassName("patient-selected");
+		if (previous != null && !previous.getId().equals(patient.getId())) {
+			patientList.getLazyDataView().refreshItem(previous);
+		}
+		patientList.getLazyDataView().refreshItem(patient);
 	}
 
 	/**
-	 * Método para refrescar el ítem del paciente en la lista de pacientes.
+	 * Aplica en esta vista un cambio en los datos clínicos hecho por cualquier operador (también por este). La fila del
+	 * paciente afectado en la lista lateral se actualiza con el paciente que trae el evento, sin consultas; si es el
+	 * paciente seleccionado, la línea de tiempo se vuelve a consultar con los filtros actuales. Debe llamarse dentro de
+	 * {@code UI.access}.
 	 *
-	 * @param patient El paciente cuyos datos han sido actualizados.
+	 * @param event Cambio confirmado, con el paciente cargado por {@code ClinicalDataBroadcaster}.
 	 */
-	public void refreshPatientItem(PatientData patient) {
-	    if (patientListLayout != null && patient.getPhoneNumber() != null) {
-	        String phoneNumber = patient.getPhoneNumber().startsWith("+") ? patient.getPhoneNumber().substring(1)
-	                : patient.getPhoneNumber();
-	        System.out.println("Refrescando ítem del paciente con teléfono: " + phoneNumber);
-
-	        // Obtener el paciente actualizado desde el repository
-	        PatientData updatedPatient = dataManager.getPatientWithClinicalData(phoneNumber);
-	        if (updatedPatient == null) {
-	            System.err.println("No se pudo obtener los datos actualizados para el paciente: " + phoneNumber);
-	            return;
-	        }
+	public void onClinicalDataChanged(ClinicalDataChangedEvent event) {
+		if (patientList != null && event.getPatient() != null) {
+			// La lista identifica los ítems por ID, así que solo se renderiza de nuevo esta fila
+			patientList.getLazyDataView().refreshItem(event.getPatient());
+		}
 
-	        patientListLayout.getChildren()
-	                .filter(component -> component.getId().isPresent() && component.getId().get().equals(phoneNumber))
-	                .findFirst().ifPresentOrElse(component -> {
-	                    HorizontalLayout newPatientItem = createPatientListItem(updatedPatient);
-	                    patientListLayout.replace(component, newPatientItem);
-	                }, () -> {
-	                    System.err.println("No se encontró ningún componente con el teléfono: " + phoneNumber);
-	                });
-	    } else {
-	        System.err.println("patientListLayout es null o el número de teléfono es inválido para el paciente: " + patient.getPhoneNumber());
-	    }
+		if (timelineList != null && event.getPatientId().equals(selection.getPatientId())) {
+			// La consulta del timeline se hace en segundo plano y llega al navegador con push
+			applyFiltersAsync(messageList);
+		}
 	}
 
 	public void clearFilters() {
 		if (filterLayout != null) {
 			searchField.clear();
-			statusFilter.setValue(STATUS_ALL_NAME); // Establecer "Todos" localizado
+			statusFilter.setValue(statusAllName); // Establecer "Todos" localizado
 			currentSearchTerm = "";
 			currentStatusFilter = STATUS_ALL_ID; // "all"
 		}
 	}
 
 	public void clearPreviousData() {
-		this.allData = new ArrayList<>();
-		if (messageList != null) {
-			// Mantener los filtros, solo limpiar el contenido
-			messageList.getChildren().filter(component -> component.hasClassName("clinical-timeline"))
-					.forEach(messageList::remove);
+		if (timelineList != null) {
+			// Mantener los filtros, solo vaciar la línea de tiempo
+			timelineList.setItems(new ArrayList<>());
 		}
 	}
 
@@ -1123,6 +1176,12 @@ public class PatientlUIService {
 		MyNotification.show(message, Notification.Position.MIDDLE, NotificationVariant.LUMO_SUCCESS, 3000);
 	}
 
+	// Otro operador ha modificado o eliminado el registro: se descarta la edición y se recarga la línea de tiempo
+	private void showConcurrentModification() {
+		showMessageWarning("Otro usuario ha modificado o eliminado este dato clínico. Se ha recargado la línea de tiempo.");
+		applyFilters(messageList);
+	}
+
 	private void showMessageWarning(String message) {
 		MyNotification.showWarning(message, Notification.Position.MIDDLE, NotificationVariant.LUMO_WARNING, 3000);
 	}
@@ -1,32 +1,23 @@
 package es.televoip.util;
 
-import java.text.MessageFormat;
-import java.util.Locale;
-import java.util.MissingResourceException;
-import java.util.ResourceBundle;
 import org.springframework.stereotype.Component;
 
+import es.televoip.config.CustomI18NProvider;
 import es.televoip.service.LanguageService;
 
+/**
+ * Acceso a las traducciones en el idioma actual. Las consultas pasan por la caché de {@link CustomI18NProvider}, así
+ * que no se buscan en el {@code ResourceBundle} ni se vuelven a analizar los {@code MessageFormat} en cada llamada.
+ */
 @Component
 public class I18nUtil {
 
-    private ResourceBundle bundle;
+    private final LanguageService languageService;
+    private final CustomI18NProvider i18nProvider;
 
-    public I18nUtil(LanguageService languageService) {
-        updateBundle(languageService.getCurrentLocale());
-        // Registrar como listener para actualizar el bundle cuando cambia el idioma
-        languageService.addLanguageChangeListener(this::updateBundle);
-    }
-
-    private void updateBundle() {
-        // Este método será llamado cuando cambie el idioma
-        // En el enfoque de recarga de página, esto no es estrictamente necesario,
-        // pero se mantiene por si se necesita en el futuro.
-    }
-
-    private void updateBundle(Locale locale) {
-        this.bundle = ResourceBundle.getBundle("messages", locale);
+    public I18nUtil(LanguageService languageService, CustomI18NProvider i18nProvider) {
+        this.languageService = languageService;
+        this.i18nProvider = i18nProvider;
     }
 
     /*
@@ -36,21 +27,22 @@ public class I18nUtil {
     */
 
     public String get(String key) {
-        try {
-            return bundle.getString(key);
-        } catch (MissingResourceException e) {
-            System.err.println("Missing resource key: {}. Using key as default." + key);
-            return key; // O puedes devolver un valor por defecto como "Desconocido"
-        }
+        return i18nProvider.getTranslation(key, languageService.getCurrentLocale());
     }
 
     public String getFormatted(String key, Object... params) {
-        String pattern = get(key);
-        return MessageFormat.format(pattern, params);
+        return i18nProvider.format(key, languageService.getCurrentLocale(), params);
     }
     
     public boolean containsKey(String key) {
-       return bundle.containsKey(key);
+       return i18nProvider.containsKey(key, languageService.getCurrentLocale());
    }
+
+    /**
+     * Recarga las traducciones desde los ficheros {@code messages*.properties}.
+     */
+    public void reload() {
+        i18nProvider.reload();
+    }
     
 }
@@ -1,30 +1,66 @@
 package es.televoip.util;
 
 import java.util.ArrayList;
-import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.shared.Registration;
 
 /**
  * Clase que notifica a los componentes registrados cuando cambia el idioma.
+ * <p>
+ * Los listeners no se guardan en una lista estática sino en la propia {@link UI} donde está montado el componente: se
+ * añaden al montarlo y se quitan al desmontarlo. Así una vista cerrada no queda referenciada (junto con su árbol de
+ * componentes y los pacientes cargados) y, cuando se cierra la UI, sus listeners se liberan con ella.
  */
 public class LocaleChangeNotifier {
-    private static List<Translatable> listeners = new ArrayList<>();
+
+    // Listeners montados en una UI, guardados como dato de la propia UI
+    private static final class UIListeners extends LinkedHashSet<Translatable> {
+        private static final long serialVersionUID = 1L;
+    }
 
     /**
-     * Añade un listener que implementa la interfaz Translatable.
+     * Registra un componente que debe actualizar sus textos cuando cambia el idioma de su UI. Solo recibe avisos
+     * mientras está montado.
      *
      * @param listener El componente que necesita actualizarse.
+     * @return Registro para dejar de escuchar antes de que el componente se desmonte.
      */
-    public static void addListener(Translatable listener) {
-        listeners.add(listener);
+    public static <T extends Component & Translatable> Registration addListener(T listener) {
+        listener.getUI().ifPresent(ui -> listeners(ui).add(listener));
+        Registration attach = listener.addAttachListener(event -> listeners(event.getUI()).add(listener));
+        Registration detach = listener.addDetachListener(event -> listeners(event.getUI()).remove(listener));
+        return () -> {
+            attach.remove();
+            detach.remove();
+            listener.getUI().ifPresent(ui -> listeners(ui).remove(listener));
+        };
     }
 
     /**
-     * Notifica a todos los listeners registrados que el idioma ha cambiado.
+     * Notifica el cambio de idioma a los listeners montados en la UI indicada. Las demás UI (de esta sesión o de otros
+     * usuarios) conservan su idioma y no se tocan.
+     *
+     * @param ui UI cuyo idioma ha cambiado. Debe llamarse con su sesión bloqueada.
      */
-    public static void notifyListeners() {
-        for (Translatable listener : listeners) {
+    public static void notifyListeners(UI ui) {
+        // Copia: un listener puede montar o desmontar componentes al actualizarse
+        for (Translatable listener : new ArrayList<>(listeners(ui))) {
             listener.updateTexts();
         }
     }
-    
+
+    private static UIListeners listeners(UI ui) {
+        UIListeners listeners = ComponentUtil.getData(ui, UIListeners.class);
+        if (listeners == null) {
+            listeners = new UIListeners();
+            ComponentUtil.setData(ui, UIListeners.class, listeners);
+        }
+        return listeners;
+    }
+
 }
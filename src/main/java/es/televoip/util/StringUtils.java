@@ -1,6 +1,7 @@
 package es.televoip.util;
 
 import java.text.Normalizer;
+import java.util.Locale;
 import java.util.regex.Pattern;
 
 /**
@@ -8,6 +9,41 @@ import java.util.regex.Pattern;
  */
 public class StringUtils {
 
+    /**
+     * Tamaño de las tablas de plegado: cubre ASCII, Latin-1 y Latin Extended-A, que incluyen todos los caracteres
+     * acentuados del español y de las lenguas europeas habituales.
+     */
+    private static final int FOLD_TABLE_SIZE = 0x180;
+
+    /**
+     * Carácter sin diacríticos de cada carácter de la tabla ('á' → 'a', 'Ñ' → 'N').
+     */
+    private static final char[] ACCENT_FOLD = new char[FOLD_TABLE_SIZE];
+
+    /**
+     * Igual que {@link #ACCENT_FOLD} pero además en minúsculas ('Á' → 'a').
+     */
+    private static final char[] SEARCH_FOLD = new char[FOLD_TABLE_SIZE];
+
+    /**
+     * Diacríticos combinables, para los caracteres que quedan fuera de las tablas.
+     */
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+
+    static {
+        // Las tablas se calculan una sola vez con la misma normalización NFD que se aplicaba antes en cada llamada
+        for (char c = 0; c < FOLD_TABLE_SIZE; c++) {
+            ACCENT_FOLD[c] = foldSlow(String.valueOf(c), c);
+            SEARCH_FOLD[c] = foldSlow(String.valueOf(c).toLowerCase(Locale.ROOT), Character.toLowerCase(c));
+        }
+    }
+
+    // Elimina los diacríticos de un carácter; si no se reduce a uno solo (p. ej. 'ß'), devuelve el valor por defecto
+    private static char foldSlow(String value, char defaultValue) {
+        String folded = DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return folded.length() == 1 ? folded.charAt(0) : defaultValue;
+    }
+
     /**
      * Elimina los acentos y otros diacríticos de una cadena de texto.
      *
@@ -18,11 +54,122 @@ public class StringUtils {
         if (input == null) {
             return null;
         }
-        // Normaliza la cadena a la forma decomposed (NFD)
-        String normalized = Normalizer.normalize(input, Normalizer.Form.NFD);
-        // Expresión regular para eliminar los diacríticos
-        Pattern pattern = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
-        return pattern.matcher(normalized).replaceAll("");
+        int length = input.length();
+        int i = 0;
+        // Se busca el primer carácter que cambia: si no hay ninguno, se devuelve la misma cadena sin copiarla
+        while (i < length) {
+            char c = input.charAt(i);
+            if (c >= FOLD_TABLE_SIZE || ACCENT_FOLD[c] != c) {
+                break;
+            }
+            i++;
+        }
+        if (i == length) {
+            return input;
+        }
+
+        char[] result = new char[length];
+        input.getChars(0, i, result, 0);
+        int size = i;
+        for (; i < length; i++) {
+            char c = input.charAt(i);
+            if (c < FOLD_TABLE_SIZE) {
+                result[size++] = ACCENT_FOLD[c];
+            } else if (!isCombiningMark(c)) {
+                // Fuera de la tabla (símbolos, otros alfabetos...): caso poco habitual, se normaliza solo ese carácter
+                result[size++] = foldSlow(String.valueOf(c), c);
+            }
+        }
+        return new String(result, 0, size);
+    }
+
+    /**
+     * Normaliza un texto para búsquedas: minúsculas, sin acentos y con los espacios colapsados.
+     *
+     * @param input La cadena de texto original.
+     * @return La cadena normalizada, o una cadena vacía si la entrada es nula.
+     */
+    public static String normalizeForSearch(String input) {
+        if (input == null) {
+            return "";
+        }
+        return normalizeForSearch(input, null);
+    }
+
+    /**
+     * Normaliza para búsquedas la unión de dos textos separados por un espacio (por ejemplo, título y descripción), sin
+     * concatenarlos antes.
+     *
+     * @param first  Primer texto, puede ser nulo.
+     * @param second Segundo texto, puede ser nulo.
+     * @return La cadena normalizada, o una cadena vacía si ambos textos son nulos o están en blanco.
+     */
+    public static String normalizeForSearch(String first, String second) {
+        int capacity = (first != null ? first.length() : 0) + (second != null ? second.length() : 0) + 1;
+        char[] result = new char[capacity];
+        int size = foldForSearch(first, result, 0);
+        if (second != null) {
+            if (size > 0 && result[size - 1] != ' ') {
+                result[size++] = ' ';
+            }
+            size = foldForSearch(second, result, size);
+        }
+        // Quita el espacio final que pueda haber dejado un texto acabado en blanco
+        if (size > 0 && result[size - 1] == ' ') {
+            size--;
+        }
+        return new String(result, 0, size);
+    }
+
+    /**
+     * Escribe en {@code out}, a partir de {@code size}, el texto en minúsculas y sin acentos. Cada tramo de espacios o
+     * caracteres de control se reduce a un solo espacio y se omiten los del principio.
+     *
+     * @return La nueva longitud ocupada de {@code out}.
+     */
+    private static int foldForSearch(String input, char[] out, int size) {
+        if (input == null) {
+            return size;
+        }
+        for (int i = 0, length = input.length(); i < length; i++) {
+            char c = input.charAt(i);
+            if (c <= ' ') {
+                if (size > 0 && out[size - 1] != ' ') {
+                    out[size++] = ' ';
+                }
+            } else if (c < FOLD_TABLE_SIZE) {
+                out[size++] = SEARCH_FOLD[c];
+            } else if (!isCombiningMark(c)) {
+                out[size++] = foldSlow(String.valueOf(Character.toLowerCase(c)), Character.toLowerCase(c));
+            }
+        }
+        return size;
+    }
+
+    private static boolean isCombiningMark(char c) {
+        return c >= 0x0300 && c <= 0x036F;
+    }
+
+    /**
+     * Carácter de escape usado en las consultas LIKE. Se evita '\' porque MariaDB también lo interpreta en los literales.
+     */
+    public static final char LIKE_ESCAPE = '!';
+
+    /**
+     * Escapa los comodines de LIKE ('%' y '_') y el propio carácter de escape {@link #LIKE_ESCAPE}.
+     *
+     * @param value Texto literal.
+     * @return Texto listo para usarse dentro de un patrón {@code LIKE ... ESCAPE '!'}.
+     */
+    public static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 2);
+        for (char c : value.toCharArray()) {
+            if (c == LIKE_ESCAPE || c == '%' || c == '_') {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
     }
-    
+
 }
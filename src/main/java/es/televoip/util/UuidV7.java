@@ -0,0 +1,64 @@
+package es.televoip.util;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * Generador de identificadores UUID versión 7 (RFC 9562): los 48 bits más significativos son la marca de tiempo en
+ * milisegundos, así que los IDs generados crecen con el tiempo.
+ * <p>
+ * En las claves primarias de InnoDB (índice agrupado) esto hace que cada inserción vaya al final del índice, en lugar
+ * de repartirse por páginas aleatorias como con {@link UUID#randomUUID()}.
+ */
+public final class UuidV7 {
+
+    /**
+     * UUID menor que cualquier otro. Sirve como punto de partida de los recorridos por lotes ordenados por ID
+     * ({@code WHERE id > :lastId}); una cadena vacía no es un UUID válido para las columnas de tipo {@code UUID}.
+     */
+    public static final String MIN = "00000000-0000-0000-0000-000000000000";
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // Último milisegundo usado y contador de 12 bits dentro de él (campo rand_a, método 1 de la RFC 9562)
+    private static long lastMillis;
+    private static int sequence;
+
+    private UuidV7() {
+    }
+
+    /**
+     * Genera un UUIDv7. Los generados en el mismo milisegundo usan un contador, de modo que en este proceso son
+     * estrictamente crecientes.
+     */
+    public static UUID generate() {
+        long millis;
+        int seq;
+        synchronized (UuidV7.class) {
+            millis = Math.max(System.currentTimeMillis(), lastMillis);
+            if (millis == lastMillis) {
+                sequence = (sequence + 1) & 0xFFF;
+                if (sequence == 0) {
+                    // Contador agotado en este milisegundo: se pasa al siguiente
+                    millis++;
+                }
+            } else {
+                sequence = RANDOM.nextInt(0x800); // Arranque aleatorio con margen para incrementar
+            }
+            lastMillis = millis;
+            seq = sequence;
+        }
+
+        long msb = (millis << 16) | 0x7000L | seq;
+        long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * Genera un UUIDv7 en su forma de texto de 36 caracteres, como se usa en las entidades.
+     */
+    public static String generateString() {
+        return generate().toString();
+    }
+
+}
@@ -36,7 +36,6 @@ import org.vaadin.lineawesome.LineAwesomeIcon;
 /**
  * The main view is a top-level placeholder for other views.
  */
-//@Push
 @Layout
 @AnonymousAllowed
 public class MainLayout extends AppLayout {
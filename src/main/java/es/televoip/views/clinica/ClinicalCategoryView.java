@@ -13,6 +13,8 @@ import com.vaadin.flow.component.checkbox.Checkbox;
 import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.dialog.Dialog;
 import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.dnd.GridDropLocation;
+import com.vaadin.flow.component.grid.dnd.GridDropMode;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.html.H3;
@@ -45,6 +47,7 @@ public class ClinicalCategoryView extends VerticalLayout { // No implementar Tra
     private final CategoryService categoryManager;
     private final I18nUtil i18nUtil; // Inyectar I18nUtil
     private final Grid<Category> categoriesGrid;
+    private Category draggedCategory; // Categoría que se está arrastrando en el grid
 
     public ClinicalCategoryView(CategoryService categoryManager, I18nUtil i18nUtil) {
         this.categoryManager = categoryManager;
@@ -213,9 +216,41 @@ public class ClinicalCategoryView extends VerticalLayout { // No implementar Tra
        .setWidth("200px")
        .setFlexGrow(0);
 
+       setupDragAndDrop();
+
        categoriesGrid.setItems(categoryManager.getAllCategories());
     }
 
+    // Reordenar arrastrando filas: cada movimiento se guarda con una sola actualización en la base de datos
+    private void setupDragAndDrop() {
+       categoriesGrid.setRowsDraggable(true);
+       categoriesGrid.setDropMode(GridDropMode.BETWEEN);
+
+       categoriesGrid.addDragStartListener(e -> draggedCategory = e.getDraggedItems().isEmpty()
+             ? null : e.getDraggedItems().get(0));
+       categoriesGrid.addDragEndListener(e -> draggedCategory = null);
+
+       categoriesGrid.addDropListener(e -> {
+           Category target = e.getDropTargetItem().orElse(null);
+           if (draggedCategory == null || target == null || target.getId().equals(draggedCategory.getId())) {
+               return;
+           }
+
+           // Posición de destino en la lista sin la categoría arrastrada
+           List<String> orderedIds = categoryManager.getAllCategories().stream()
+                 .map(Category::getId)
+                 .filter(id -> !id.equals(draggedCategory.getId()))
+                 .collect(Collectors.toList());
+           int newPosition = orderedIds.indexOf(target.getId());
+           if (e.getDropLocation() == GridDropLocation.BELOW) {
+               newPosition++;
+           }
+
+           categoryManager.moveCategory(draggedCategory.getId(), newPosition);
+           refreshGrid();
+       });
+    }
+
     private void openNewCategoryDialog() {
        Dialog dialog = new Dialog();
        dialog.setHeaderTitle(i18nUtil.get("dialog.newCategory.title"));
@@ -370,9 +405,8 @@ public class ClinicalCategoryView extends VerticalLayout { // No implementar Tra
         downButton.addClickListener(e -> moveCategory(category, false));
 
         // Deshabilitar botones en los límites
-        List<Category> allCategories = categoryManager.getAllCategories();
         upButton.setEnabled(category.getDisplayOrder() > 1);
-        downButton.setEnabled(category.getDisplayOrder() < allCategories.size());
+        downButton.setEnabled(category.getDisplayOrder() < categoryManager.getAllCategoryNames().size());
 
         buttonLayout.add(upButton, downButton);
         return buttonLayout;
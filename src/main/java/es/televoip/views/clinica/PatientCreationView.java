@@ -1,7 +1,6 @@
 package es.televoip.views.clinica;
 
 import com.vaadin.flow.component.Text;
-import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.dialog.Dialog;
@@ -25,6 +24,7 @@ import com.vaadin.flow.router.Route;
 import es.televoip.model.entities.PatientData;
 import es.televoip.service.PatientService;
 import es.televoip.util.I18nUtil;
+import es.televoip.util.LocaleChangeNotifier;
 import es.televoip.util.MyNotification;
 import es.televoip.util.Translatable;
 import es.televoip.views.MainLayout;
@@ -40,11 +40,18 @@ public class PatientCreationView extends VerticalLayout implements Translatable
 	private Grid<PatientData> grid;
 	private TextField filterField;
 	private HorizontalLayout toolbar;
+	private Button addButton;
+	private Button viewActiveButton;
+	private Button viewSuspendedButton;
 
 	private boolean viewingSuspended = false;
 
 	private Grid.Column<PatientData> activeActionsColumn;
 	private Grid.Column<PatientData> suspendedActionsColumn;
+	private Grid.Column<PatientData> nameColumn;
+	private Grid.Column<PatientData> lastNameColumn;
+	private Grid.Column<PatientData> phoneColumn;
+	private Grid.Column<PatientData> emailColumn;
 
 	public PatientCreationView(PatientService patientService, I18nUtil i18nUtil) {
 		this.patientService = patientService;
@@ -58,6 +65,9 @@ public class PatientCreationView extends VerticalLayout implements Translatable
 		createGrid();
 
 		add(toolbar, grid);
+
+		// Registrar como listener para cambios de idioma
+		LocaleChangeNotifier.addListener(this);
 	}
 
 	private void createToolbar() {
@@ -77,13 +87,13 @@ public class PatientCreationView extends VerticalLayout implements Translatable
 		filterField.setWidth("240px");
 
 		// Botón de añadir
-		Button addButton = new Button(i18nUtil.get("button.newPatient"), VaadinIcon.PLUS.create());
+		addButton = new Button(i18nUtil.get("button.newPatient"), VaadinIcon.PLUS.create());
 		addButton.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
 		addButton.addClickListener(e -> showPatientForm(new PatientData()));
 
 		// Botones de filtro con estados
-		Button viewActiveButton = new Button(i18nUtil.get("button.viewActive"));
-		Button viewSuspendedButton = new Button(i18nUtil.get("button.viewSuspended"));
+		viewActiveButton = new Button(i18nUtil.get("button.viewActive"));
+		viewSuspendedButton = new Button(i18nUtil.get("button.viewSuspended"));
 
 		viewActiveButton.addClassName("filter-button");
 		viewSuspendedButton.addClassName("filter-button");
@@ -116,20 +126,20 @@ public class PatientCreationView extends VerticalLayout implements Translatable
 		grid.addClassName("v-grid"); // Clase CSS definida en clinica-chat.css
 
 		// Definir columnas
-		grid.addColumn(PatientData::getName)
+		nameColumn = grid.addColumn(PatientData::getName)
 				.setHeader(i18nUtil.get("column.name"))
 				.setAutoWidth(true).setSortable(true);
 
-		grid.addColumn(PatientData::getLastName)
+		lastNameColumn = grid.addColumn(PatientData::getLastName)
 				.setHeader(i18nUtil.get("column.lastName"))
 				.setAutoWidth(true)
 				.setSortable(true);
 
-		grid.addColumn(PatientData::getPhoneNumber)
+		phoneColumn = grid.addColumn(PatientData::getPhoneNumber)
 				.setHeader(i18nUtil.get("column.phone"))
 				.setAutoWidth(true);
 
-		grid.addColumn(PatientData::getEmail)
+		emailColumn = grid.addColumn(PatientData::getEmail)
 				.setHeader(i18nUtil.get("column.email"))
 				.setAutoWidth(true);
 
@@ -373,14 +383,8 @@ public class PatientCreationView extends VerticalLayout implements Translatable
 		suspendedActionsColumn.setVisible(true);
 
 		// Actualizar clases de los botones en el toolbar
-		toolbar.getChildren().filter(component -> component instanceof Button).map(component -> (Button) component)
-				.forEach(button -> {
-					if (button.getText().equals(i18nUtil.get("button.viewSuspended"))) {
-						button.addClassName("active");
-					} else if (button.getText().equals(i18nUtil.get("button.viewActive"))) {
-						button.removeClassName("active");
-					}
-				});
+		viewSuspendedButton.addClassName("active");
+		viewActiveButton.removeClassName("active");
 	}
 
 	private void updateList(String filterText) {
@@ -400,14 +404,8 @@ public class PatientCreationView extends VerticalLayout implements Translatable
 		suspendedActionsColumn.setVisible(false);
 
 		// Actualizar clases de los botones en el toolbar
-		toolbar.getChildren().filter(component -> component instanceof Button).map(component -> (Button) component)
-				.forEach(button -> {
-					if (button.getText().equals(i18nUtil.get("button.viewActive"))) {
-						button.addClassName("active");
-					} else if (button.getText().equals(i18nUtil.get("button.viewSuspended"))) {
-						button.removeClassName("active");
-					}
-				});
+		viewActiveButton.addClassName("active");
+		viewSuspendedButton.removeClassName("active");
 	}
 
 	/**
@@ -489,9 +487,21 @@ public class PatientCreationView extends VerticalLayout implements Translatable
 		// Actualizar el título de la página
 		getUI().ifPresent(ui -> ui.getPage().setTitle(i18nUtil.get("page.title.patients")));
 
-		// Actualizar textos de los componentes existentes
-		// Recargar la página para aplicar las traducciones
-		UI.getCurrent().getPage().reload();
+		// Actualizar en el sitio los textos de los componentes existentes, sin recargar la página
+		filterField.setPlaceholder(i18nUtil.get("filter.search.placeholder"));
+		addButton.setText(i18nUtil.get("button.newPatient"));
+		viewActiveButton.setText(i18nUtil.get("button.viewActive"));
+		viewSuspendedButton.setText(i18nUtil.get("button.viewSuspended"));
+
+		nameColumn.setHeader(i18nUtil.get("column.name"));
+		lastNameColumn.setHeader(i18nUtil.get("column.lastName"));
+		phoneColumn.setHeader(i18nUtil.get("column.phone"));
+		emailColumn.setHeader(i18nUtil.get("column.email"));
+		activeActionsColumn.setHeader(i18nUtil.get("column.actions"));
+		suspendedActionsColumn.setHeader(i18nUtil.get("column.actions"));
+
+		// Vuelve a generar las filas visibles para traducir los tooltips de los botones de acción
+		grid.getDataProvider().refreshAll();
 	}
 
 }
@@ -1,22 +1,37 @@
 package es.televoip.views.clinica;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Pageable;
+
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.component.virtuallist.VirtualList;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.renderer.ComponentRenderer;
 import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.shared.Registration;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
 
-import es.televoip.model.entities.ClinicalData;
+import es.televoip.model.CategorySortCursor;
 import es.televoip.model.entities.PatientData;
+import es.televoip.projections.PatientSummary;
 import es.televoip.service.CategoryService;
+import es.televoip.service.ClinicalDataBroadcaster;
+import es.televoip.service.PatientSelectionContext;
 import es.televoip.service.PatientService;
 import es.televoip.service.PatientlUIService;
 import es.televoip.util.I18nUtil;
@@ -34,12 +49,16 @@ public class PatientDataView extends HorizontalLayout implements Translatable {
     @SuppressWarnings("unused")
     private final CategoryService categoryManager;
     private PatientlUIService uiManager; // Ya no es final porque se inicializa después del patientList
+    private final ClinicalDataBroadcaster broadcaster;
+    private Registration broadcasterRegistration; // Cambios de otros operadores mientras la vista está montada
 
     // Componentes principales
     private VerticalLayout userListLayout;
     private VerticalLayout chatLayout;
     private VerticalLayout messageList;
-    private VerticalLayout patientList;
+    private VirtualList<PatientData> patientList;
+    private Div noResults;
+    private TextField searchField;
 
     // Inyecta I18nUtil
     private final I18nUtil i18nUtil;
@@ -52,9 +71,16 @@ public class PatientDataView extends HorizontalLayout implements Translatable {
     private String currentSortOption = "Nombre"; // Valor por defecto
     private String currentStatusFilter = "";
     private String currentCategoryFilter = "";
-
-    public PatientDataView(PatientService dataManager, CategoryService categoryManager, I18nUtil i18nUtil) {
+    // Posiciones ya leídas de la lista ordenada por categoría (paginación por clave)
+    private final CategorySortCursor categorySortCursor = new CategorySortCursor();
+    private String currentSearchTerm = "";
+
+    public PatientDataView(PatientService dataManager, CategoryService categoryManager,
+            PatientSelectionContext selection,
+            @Qualifier("timelineSearchExecutor") ExecutorService searchExecutor, I18nUtil i18nUtil,
+            ClinicalDataBroadcaster broadcaster) {
         this.dataManager = dataManager;
+        this.broadcaster = broadcaster;
         this.categoryManager = categoryManager;
         this.i18nUtil = i18nUtil;
 
@@ -67,20 +93,13 @@ public class PatientDataView extends HorizontalLayout implements Translatable {
         initializeComponents();
 
         // Crear el ChatUIManager después de inicializar los componentes
-        this.uiManager = new PatientlUIService(dataManager, categoryManager, i18nUtil);
+        this.uiManager = new PatientlUIService(dataManager, categoryManager, selection, searchExecutor, i18nUtil);
 
         // Entonces configurar el uiManager
-        this.uiManager.setPatientListLayout(patientList);
+        this.uiManager.setPatientList(patientList);
+        patientList.setRenderer(new ComponentRenderer<>(uiManager::createPatientListItem));
         this.uiManager.setPatientSelectionListener(this::onPatientSelected);
 
-        // Verificar currentUser
-        PatientData currentUser = dataManager.getCurrentUser();
-        if (currentUser != null) {
-            System.out.println("Usuario actual: " + currentUser.getName());
-        } else {
-            System.out.println("No hay un paciente seleccionado actualmente.");
-        }
-
         // Configurar layout
         setupLayout();
 
@@ -94,11 +113,32 @@ public class PatientDataView extends HorizontalLayout implements Translatable {
         chatLayout = new VerticalLayout();
         messageList = new VerticalLayout();
 
-        // Inicializar patientList con configuración básica
-        patientList = new VerticalLayout();
-        patientList.setPadding(false);
-        patientList.setSpacing(false);
+        // Inicializar patientList: lista virtual que solo renderiza las filas visibles
+        patientList = new VirtualList<>();
         patientList.addClassName("patient-list");
+        patientList.setHeightFull();
+
+        // Mensaje para cuando no hay pacientes que mostrar
+        noResults = new Div();
+        noResults.setText(i18nUtil.get("message.noPatients"));
+        noResults.addClassName("no-results"); // Clase CSS para estilos
+        noResults.setVisible(false);
+
+        setupPatientListDataProvider();
+    }
+
+    /**
+     * Instala una sola vez el proveedor de datos de la lista lateral. Las filas se identifican por el ID del paciente:
+     * al cambiar la ordenación o los filtros solo se vuelve a consultar el rango visible ({@link #refreshUserList()}) y
+     * un cambio en un paciente se aplica a su fila con {@code refreshItem}, sin reconstruir la lista.
+     */
+    private void setupPatientListDataProvider() {
+        patientList.setItems(this::fetchPatients, query -> countPatients())
+                .setIdentifierProvider(PatientData::getId);
+
+        // Si la lista está vacía, mostrar un mensaje
+        patientList.getLazyDataView().addItemCountChangeListener(
+                event -> noResults.setVisible(event.getItemCount() == 0));
     }
 
     /**
@@ -106,7 +146,6 @@ public class PatientDataView extends HorizontalLayout implements Translatable {
      */
     private void onPatientSelected(PatientData patient) {
         if (patient == null) {
-            System.out.println("Ningún paciente seleccionado.");
             messageList.removeAll(); // Limpia mensajes si no hay paciente
             return;
         }
@@ -172,7 +211,7 @@ public class PatientDataView extends HorizontalLayout implements Translatable {
         header.setWidthFull();
 
         // Campo de búsqueda
-        TextField searchField = new TextField();
+        searchField = new TextField();
         searchField.setPlaceholder(i18nUtil.get("filter.search.placeholder"));
         searchField.setPrefixComponent(VaadinIcon.SEARCH.create());
         searchField.setClearButtonVisible(true);
@@ -261,7 +300,8 @@ public class PatientDataView extends HorizontalLayout implements Translatable {
         header.setFlexGrow(1, searchField); // El campo de búsqueda ocupa el espacio restante
 
         userListLayout.add(header);
-        userListLayout.add(patientList); // Añadir la instancia existente de patientList
+        userListLayout.add(patientList, noResults); // Añadir la instancia existente de patientList
+        userListLayout.setFlexGrow(1, patientList);
 
         // Mostrar todos los usuarios iniciales ordenados por defecto (Nombre)
         refreshUserList();
@@ -283,77 +323,52 @@ public class PatientDataView extends HorizontalLayout implements Translatable {
 
     /**
      * Método para refrescar la lista de pacientes según la opción de ordenación seleccionada y los filtros aplicados.
+     * La lista es perezosa: al enviar la respuesta se consulta una vez el recuento y, después, las páginas que el
+     * usuario tiene a la vista. Varias llamadas en la misma petición (p. ej. cambiar la ordenación y limpiar los
+     * filtros) se agrupan en una sola consulta.
      */
     private void refreshUserList() {
-        patientList.removeAll(); // Limpia la lista existente
-
-        List<PatientData> patients = new ArrayList<>();
-
-        // Obtener la lista de pacientes ordenados según la opción actual
-        switch (currentSortOption) {
-            case "Nombre":
-                patients = dataManager.getAllPatientsOrderedByNameAsc();
-                break;
-            case "Última Actualización":
-                patients = dataManager.getAllPatientsOrderedByLastUpdatedDesc();
-                break;
-            case "Estado":
-                patients = dataManager.getAllPatientsOrderedByStatus();
-                break;
-            case "Categoría":
-                patients = dataManager.getAllPatientsOrderedByCategoryAsc();
-                break;
-            default:
-                patients = dataManager.getAllPatientsOrderedByNameAsc();
-                break;
-        }
-
-        // Aplicar filtros adicionales
-        if ("Estado".equals(currentSortOption) && !currentStatusFilter.isEmpty()) {
-            patients.removeIf(patient -> !patient.getStatus().equalsIgnoreCase(currentStatusFilter));
-        }
-
-        if ("Categoría".equals(currentSortOption) && !currentCategoryFilter.isEmpty()) {
-            patients.removeIf(patient -> !patientHasCategory(patient, currentCategoryFilter));
-        }
-
-        // Iterar sobre cada paciente y añadirlo a la UI
-        for (PatientData patient : patients) {
-            // Usa el método para cargar datos relacionados
-            PatientData patientWithDetails = dataManager.getPatientWithClinicalData(patient.getPhoneNumber());
-
-            HorizontalLayout patientItem = uiManager.createPatientListItem(patientWithDetails);
-            patientList.add(patientItem);
-        }
+        categorySortCursor.clear();
+        patientList.getDataProvider().refreshAll();
+    }
 
-        // Si la lista está vacía, mostrar un mensaje
-        if (patients.isEmpty()) {
-            Div noResults = new Div();
-            noResults.setText(i18nUtil.get("message.noPatients"));
-            noResults.addClassName("no-results"); // Clase CSS para estilos
-            patientList.add(noResults);
-        }
+    /**
+     * Número de pacientes con la búsqueda o los filtros actuales.
+     */
+    private int countPatients() {
+        long total = isSearching()
+                ? dataManager.countSearchPatients(currentSearchTerm)
+                : dataManager.countPatients(currentSortOption, currentStatusFilter, currentCategoryFilter);
+        return (int) Math.min(total, Integer.MAX_VALUE);
     }
 
     /**
-     * Verifica si un paciente tiene al menos un ClinicalData con la categoría especificada.
+     * Obtiene la página de pacientes solicitada por la lista virtual.
      *
-     * @param patient           El paciente a verificar.
-     * @param categoryToFilter  La categoría a buscar.
-     * @return true si el paciente tiene al menos una ClinicalData con la categoría especificada, false en caso contrario.
+     * @param query Consulta con el desplazamiento y el tamaño de página.
+     * @return Pacientes de la página, con su resumen de estados clínicos.
      */
-    private boolean patientHasCategory(PatientData patient, String categoryToFilter) {
-        if (patient.getClinicalDataList() == null) {
-            return false;
-        }
-
-        for (ClinicalData cd : patient.getClinicalDataList()) {
-            if (cd.getCategory() != null && cd.getCategory().getName().equalsIgnoreCase(categoryToFilter)) {
-                return true;
-            }
+    private Stream<PatientData> fetchPatients(Query<PatientData, Void> query) {
+        Pageable pageable = VaadinSpringDataHelpers.toSpringPageRequest(query);
+
+        List<String> patientIds;
+        if (isSearching()) {
+            // La búsqueda usa el índice de términos y devuelve solo filas resumen
+            patientIds = dataManager.searchPatients(currentSearchTerm, pageable)
+                    .map(PatientSummary::getId)
+                    .getContent();
+        } else if ("Categoría".equals(currentSortOption) && currentCategoryFilter.isEmpty()) {
+            // Orden por categoría sin filtro: cada página continúa desde la última fila leída, sin OFFSET
+            patientIds = dataManager.getPatientIdsOrderedByCategory(categorySortCursor, pageable);
+        } else {
+            patientIds = dataManager
+                    .getPatientsPage(currentSortOption, currentStatusFilter, currentCategoryFilter, pageable)
+                    .map(PatientData::getId)
+                    .getContent();
         }
 
-        return false;
+        // Cargar los pacientes de la página y sus contadores de estado, sin sus datos clínicos
+        return dataManager.getPatientsWithStatusSummary(patientIds).stream();
     }
 
     /**
@@ -362,10 +377,43 @@ public class PatientDataView extends HorizontalLayout implements Translatable {
      * @param searchTerm Término de búsqueda ingresado por el usuario.
      */
     private void filterUsers(String searchTerm) {
+        currentSearchTerm = searchTerm != null ? searchTerm.trim() : "";
         // El filtrado se realiza dentro de refreshUserList según los filtros aplicados
         refreshUserList();
     }
 
+    /**
+     * Indica si hay un término de búsqueda activo. Mientras se busca, los resultados se ordenan por nombre.
+     */
+    private boolean isSearching() {
+        return !currentSearchTerm.isEmpty();
+    }
+
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        // Recibir los cambios en los datos clínicos (de este u otros operadores) y aplicarlos en esta UI con push
+        UI ui = attachEvent.getUI();
+        broadcasterRegistration = broadcaster.register(event -> {
+            try {
+                ui.access(() -> uiManager.onClinicalDataChanged(event));
+            } catch (UIDetachedException e) {
+                // La vista se ha cerrado mientras llegaba el cambio: no hay nada que actualizar
+            }
+        });
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        super.onDetach(detachEvent);
+        if (broadcasterRegistration != null) {
+            broadcasterRegistration.remove();
+            broadcasterRegistration = null;
+        }
+        // No aplicar resultados de búsquedas en segundo plano a una vista cerrada
+        uiManager.cancelPendingSearch();
+    }
+
     /**
      * Implementación del método de la interfaz Translatable. Este método se llama cuando cambia el idioma para actualizar los textos de la UI.
      */
@@ -374,14 +422,15 @@ public class PatientDataView extends HorizontalLayout implements Translatable {
         // Actualizar el título de la página
         getUI().ifPresent(ui -> ui.getPage().setTitle(i18nUtil.get("page.title.clinicData")));
 
-        // Actualizar textos de los componentes existentes
-        // Por ejemplo, actualizar los placeholders y labels
-        sortComboBox.setPlaceholder("Ordenar por"); // Actualizar placeholder si es necesario
+        // Actualizar en el sitio los textos de los componentes existentes, sin recargar la página: se conservan el
+        // paciente seleccionado, los filtros y la posición de las listas
+        noResults.setText(i18nUtil.get("message.noPatients"));
+        searchField.setPlaceholder(i18nUtil.get("filter.search.placeholder"));
+        sortComboBox.setPlaceholder("Ordenar por"); // Textos aún sin clave de traducción
         statusFilterComboBox.setPlaceholder("Seleccionar Estado");
         categoryFilterComboBox.setPlaceholder("Seleccionar Categoría");
-        // Actualizar otros textos según sea necesario
 
-        // Recargar la página para aplicar las traducciones
-        UI.getCurrent().getPage().reload();
+        // Filtros y línea de tiempo del panel de datos clínicos
+        uiManager.updateTexts();
     }
 }
@@ -0,0 +1,5 @@
+-- Contador de cambios en los datos clínicos de cada paciente. El índice de búsqueda clínica en memoria es local a cada
+-- nodo: antes de responder compara su versión del paciente con esta y, si no coincide (otro nodo ha modificado sus
+-- datos), vuelve a cargarlo.
+
+ALTER TABLE patient_status_summary ADD COLUMN data_version BIGINT NOT NULL DEFAULT 0;
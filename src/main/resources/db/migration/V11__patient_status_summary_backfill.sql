@@ -0,0 +1,19 @@
+-- Resumen de estados de los pacientes que aún no lo tienen (los creados antes de existir la tabla). Se genera una sola
+-- vez aquí en lugar de comprobarlo en cada arranque. Los estados se reconocen igual que en ClinicalStatus.fromString:
+-- por código o por nombre visible, sin distinguir mayúsculas; los desconocidos no se contabilizan.
+
+INSERT INTO patient_status_summary (patient_id, urgent_count, pending_count, in_progress_count, completed_count,
+                                    last_activity, first_category_name, data_version)
+SELECT p.id,
+       SUM(CASE WHEN LOWER(TRIM(cd.status)) IN ('urgent', 'urgente') THEN 1 ELSE 0 END),
+       SUM(CASE WHEN LOWER(TRIM(cd.status)) IN ('pending', 'pendiente') THEN 1 ELSE 0 END),
+       SUM(CASE WHEN LOWER(TRIM(cd.status)) IN ('in_progress', 'en curso') THEN 1 ELSE 0 END),
+       SUM(CASE WHEN LOWER(TRIM(cd.status)) IN ('completed', 'completado') THEN 1 ELSE 0 END),
+       MAX(cd.date),
+       COALESCE(MIN(cat.name), ''),
+       0
+FROM patient_data p
+LEFT JOIN clinical_data cd ON cd.patient_id = p.id
+LEFT JOIN category cat ON cat.id = cd.category_id
+WHERE NOT EXISTS (SELECT 1 FROM patient_status_summary s WHERE s.patient_id = p.id)
+GROUP BY p.id;
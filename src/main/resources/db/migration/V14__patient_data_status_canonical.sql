@@ -0,0 +1,7 @@
+-- Estados de paciente en su forma canónica (sin espacios alrededor y en minúsculas, ver PatientData.canonicalStatus).
+-- El filtro por estado del panel lateral compara por igualdad para usar idx_patient_data_status_name, así que no debe
+-- depender de que la intercalación de la columna no distinga mayúsculas. Solo se reescriben las filas que cambian.
+
+UPDATE patient_data
+SET status = LOWER(TRIM(status))
+WHERE BINARY status <> BINARY LOWER(TRIM(status));
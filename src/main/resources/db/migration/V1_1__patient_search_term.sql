@@ -0,0 +1,11 @@
+-- Términos de búsqueda normalizados de cada paciente (ver PatientSearchTerm y PatientSearchService).
+
+CREATE TABLE patient_search_term (
+    id         VARCHAR(36) NOT NULL,
+    patient_id VARCHAR(36) NOT NULL,
+    term       VARCHAR(64) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_patient_search_term_term ON patient_search_term (term, patient_id);
+CREATE INDEX idx_patient_search_term_patient ON patient_search_term (patient_id);
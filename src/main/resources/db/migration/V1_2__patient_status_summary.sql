@@ -0,0 +1,11 @@
+-- Contadores de datos clínicos por estado de cada paciente para el panel lateral (ver PatientStatusSummary).
+
+CREATE TABLE patient_status_summary (
+    patient_id        VARCHAR(36) NOT NULL,
+    urgent_count      BIGINT      NOT NULL,
+    pending_count     BIGINT      NOT NULL,
+    in_progress_count BIGINT      NOT NULL,
+    completed_count   BIGINT      NOT NULL,
+    last_activity     DATETIME(6),
+    PRIMARY KEY (patient_id)
+) ENGINE = InnoDB;
@@ -0,0 +1,9 @@
+-- Línea de tiempo filtrada, buscada y ordenada en la base de datos: texto normalizado de cada dato clínico (los
+-- registros existentes se rellenan en V12) e índices por categoría, estado y fecha.
+
+ALTER TABLE clinical_data ADD COLUMN search_text TEXT NULL;
+
+CREATE INDEX idx_clinical_data_category_status_date ON clinical_data (category_id, status, date);
+CREATE INDEX idx_clinical_data_status_date ON clinical_data (status, date);
+
+CREATE INDEX idx_patient_clinical_data_patient ON patient_clinical_data (patient_id, clinical_data_id);
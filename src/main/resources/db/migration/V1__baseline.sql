@@ -0,0 +1,59 @@
+-- Esquema anterior a Flyway, tal como lo generaba spring.jpa.hibernate.ddl-auto=update a partir de las entidades.
+-- Las bases de datos existentes se marcan como versión 1 (spring.flyway.baseline-on-migrate) y no ejecutan este script,
+-- así que no debe incluir nada que no tuvieran ya: las tablas, columnas e índices nuevos van en migraciones posteriores.
+
+CREATE TABLE category (
+    id            VARCHAR(255) NOT NULL,
+    name          VARCHAR(255),
+    icon          VARCHAR(255),
+    is_active     BIT          NOT NULL,
+    display_order INT          NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE sub_category (
+    id            VARCHAR(255) NOT NULL,
+    name          VARCHAR(255),
+    icon          VARCHAR(255),
+    is_active     BIT          NOT NULL,
+    is_required   BIT          NOT NULL,
+    display_order INT          NOT NULL,
+    category_id   VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_sub_category_category FOREIGN KEY (category_id) REFERENCES category (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE patient_data (
+    id           VARCHAR(36)  NOT NULL,
+    name         VARCHAR(255) NOT NULL,
+    last_name    VARCHAR(255),
+    email        VARCHAR(255),
+    phone_number VARCHAR(255) NOT NULL,
+    gender       VARCHAR(255),
+    address      VARCHAR(255),
+    status       VARCHAR(255) NOT NULL,
+    created_at   DATETIME(6),
+    updated_at   DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_patient_data_email UNIQUE (email),
+    CONSTRAINT uk_patient_data_phone_number UNIQUE (phone_number)
+) ENGINE = InnoDB;
+
+CREATE TABLE clinical_data (
+    id          VARCHAR(36)  NOT NULL,
+    category_id VARCHAR(255) NOT NULL,
+    title       VARCHAR(255) NOT NULL,
+    description TEXT,
+    status      VARCHAR(255) NOT NULL,
+    date        DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_clinical_data_category FOREIGN KEY (category_id) REFERENCES category (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE patient_clinical_data (
+    patient_id       VARCHAR(36) NOT NULL,
+    clinical_data_id VARCHAR(36) NOT NULL,
+    CONSTRAINT uk_patient_clinical_data_clinical_data UNIQUE (clinical_data_id),
+    CONSTRAINT fk_patient_clinical_data_patient FOREIGN KEY (patient_id) REFERENCES patient_data (id),
+    CONSTRAINT fk_patient_clinical_data_clinical_data FOREIGN KEY (clinical_data_id) REFERENCES clinical_data (id)
+) ENGINE = InnoDB;
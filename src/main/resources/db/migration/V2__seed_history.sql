@@ -0,0 +1,9 @@
+-- Registro de las semillas de datos aplicadas al arrancar (ver DataSeedRunner).
+
+CREATE TABLE seed_history (
+    seed_id    VARCHAR(100) NOT NULL,
+    version    INT          NOT NULL,
+    checksum   VARCHAR(64)  NOT NULL,
+    applied_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (seed_id)
+) ENGINE = InnoDB;
@@ -0,0 +1,4 @@
+-- Versión de cada dato clínico para el bloqueo optimista (ver ClinicalData.version). Los registros existentes empiezan
+-- en la versión 0.
+
+ALTER TABLE clinical_data ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,4 @@
+-- Paso 1 de 3 para sustituir la tabla de unión patient_clinical_data por una clave ajena en clinical_data.
+-- La columna se crea admitiendo nulos; V5 la rellena por lotes y V6 añade las restricciones y borra la tabla de unión.
+
+ALTER TABLE clinical_data ADD COLUMN patient_id VARCHAR(36) NULL;
@@ -0,0 +1,20 @@
+-- Paso 3 de 3: restricciones e índices de clinical_data.patient_id y eliminación de la tabla de unión.
+
+-- Registros sin fila en la tabla de unión: no pertenecían a ningún paciente ni se mostraban en ninguna pantalla. No se
+-- borran: se apartan a clinical_data_orphan (mismas columnas) para poder revisarlos y reasignarlos a mano
+CREATE TABLE clinical_data_orphan LIKE clinical_data;
+
+INSERT INTO clinical_data_orphan SELECT * FROM clinical_data WHERE patient_id IS NULL;
+
+DELETE FROM clinical_data WHERE patient_id IS NULL;
+
+ALTER TABLE clinical_data MODIFY patient_id VARCHAR(36) NOT NULL;
+
+-- Línea de tiempo de un paciente: por fecha y filtrada por categoría + estado
+CREATE INDEX idx_clinical_data_patient_date ON clinical_data (patient_id, date);
+CREATE INDEX idx_clinical_data_patient_category_status ON clinical_data (patient_id, category_id, status);
+
+ALTER TABLE clinical_data
+    ADD CONSTRAINT fk_clinical_data_patient FOREIGN KEY (patient_id) REFERENCES patient_data (id);
+
+DROP TABLE patient_clinical_data;
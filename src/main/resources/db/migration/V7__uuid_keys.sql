@@ -0,0 +1,20 @@
+-- Claves de pacientes y datos clínicos en columnas UUID nativas de MariaDB (16 bytes en lugar de VARCHAR(36)).
+-- Los IDs existentes se convierten en el sitio y se siguen leyendo y escribiendo como texto; los nuevos se generan como
+-- UUIDv7 (ver UuidV7), que MariaDB guarda sin reordenar sus bytes, de modo que se insertan al final del índice.
+
+ALTER TABLE clinical_data DROP FOREIGN KEY fk_clinical_data_patient;
+
+ALTER TABLE patient_data MODIFY id UUID NOT NULL;
+
+ALTER TABLE clinical_data
+    MODIFY id UUID NOT NULL,
+    MODIFY patient_id UUID NOT NULL;
+
+ALTER TABLE patient_search_term
+    MODIFY id UUID NOT NULL,
+    MODIFY patient_id UUID NOT NULL;
+
+ALTER TABLE patient_status_summary MODIFY patient_id UUID NOT NULL;
+
+ALTER TABLE clinical_data
+    ADD CONSTRAINT fk_clinical_data_patient FOREIGN KEY (patient_id) REFERENCES patient_data (id);
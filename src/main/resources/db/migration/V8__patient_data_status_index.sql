@@ -0,0 +1,4 @@
+-- Panel lateral filtrado por estado del paciente y ordenado por nombre (PatientRepository.findSliceByStatus). La
+-- comparación de estado es directa: los estados se guardan en minúsculas (ver V14 y PatientData.canonicalStatus).
+
+CREATE INDEX idx_patient_data_status_name ON patient_data (status, name, id);
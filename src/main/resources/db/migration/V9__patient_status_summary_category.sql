@@ -0,0 +1,14 @@
+-- Clave del panel lateral ordenado por categoría: primer nombre de categoría (alfabético) de los datos clínicos del
+-- paciente, precalculado en su resumen para paginar sobre un índice en lugar de agrupar clinical_data en cada página.
+-- Los pacientes sin datos clínicos tienen cadena vacía y aparecen primero, como con el MIN(...) anterior.
+
+ALTER TABLE patient_status_summary ADD COLUMN first_category_name VARCHAR(255) NOT NULL DEFAULT '';
+
+UPDATE patient_status_summary s
+SET s.first_category_name = COALESCE((
+    SELECT MIN(cat.name)
+    FROM clinical_data cd
+    JOIN category cat ON cat.id = cd.category_id
+    WHERE cd.patient_id = s.patient_id), '');
+
+CREATE INDEX idx_patient_status_summary_category ON patient_status_summary (first_category_name, patient_id);
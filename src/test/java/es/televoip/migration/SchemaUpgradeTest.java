@@ -0,0 +1,128 @@
+package es.televoip.migration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.containers.MariaDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import es.televoip.util.StringUtils;
+
+/**
+ * Las migraciones de Flyway sobre MariaDB, igual que en producción: una base de datos existente de antes de Flyway (con
+ * el esquema que generaba Hibernate y datos) se marca como versión 1 y se actualiza hasta la última versión sin perder
+ * datos, y una base de datos vacía se crea desde V1.
+ * <p>
+ * Necesita Docker; si no hay, el test se omite.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class SchemaUpgradeTest {
+
+	@Container
+	private static final MariaDBContainer<?> MARIADB = new MariaDBContainer<>("mariadb:11.4");
+
+	private DriverManagerDataSource dataSource;
+	private JdbcTemplate jdbc;
+
+	@BeforeEach
+	void resetDatabase() {
+		dataSource = new DriverManagerDataSource(MARIADB.getJdbcUrl(), "root", MARIADB.getPassword());
+		jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("DROP DATABASE IF EXISTS " + MARIADB.getDatabaseName());
+		jdbc.execute("CREATE DATABASE " + MARIADB.getDatabaseName());
+	}
+
+	@Test
+	void upgradesDatabaseCreatedBeforeFlyway() {
+		new ResourceDatabasePopulator(new ClassPathResource("db/baseline-d05d70f.sql")).execute(dataSource);
+
+		migrate();
+
+		// Los IDs existentes (UUIDv4) se conservan al pasar a columnas UUID
+		assertEquals("uuid", columnType("patient_data", "id"));
+		assertEquals("uuid", columnType("clinical_data", "patient_id"));
+		assertEquals(List.of("0b7e3d9a-6c1f-4a53-9d2e-3f4b5c6d7e8f", "5f2c8a71-2b3d-4e6f-8a9b-0c1d2e3f4a5b",
+				"c4d5e6f7-8a9b-4c0d-9e1f-2a3b4c5d6e7f"),
+				jdbc.queryForList("SELECT CAST(id AS CHAR) FROM patient_data ORDER BY phone_number", String.class));
+
+		// Cada dato clínico pasa a apuntar a su paciente y el que no tenía ninguno se aparta, no se borra
+		// (por título: Análisis de sangre, Electrocardiograma, Revisión cardiológica)
+		assertEquals(List.of("0b7e3d9a-6c1f-4a53-9d2e-3f4b5c6d7e8f", "5f2c8a71-2b3d-4e6f-8a9b-0c1d2e3f4a5b",
+				"0b7e3d9a-6c1f-4a53-9d2e-3f4b5c6d7e8f"),
+				jdbc.queryForList("SELECT CAST(patient_id AS CHAR) FROM clinical_data ORDER BY title", String.class));
+		assertEquals(List.of("Registro huérfano"),
+				jdbc.queryForList("SELECT title FROM clinical_data_orphan", String.class));
+		assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM clinical_data WHERE version <> 0", Integer.class));
+		assertEquals(0, tableCount("patient_clinical_data"));
+
+		// Tablas que añade la serie, creadas aunque V1 no se ejecute
+		assertEquals(1, tableCount("patient_search_term"));
+		assertEquals(1, tableCount("patient_status_summary"));
+		assertEquals("varchar", columnType("patient_status_summary", "first_category_name"));
+		assertEquals("bigint", columnType("patient_status_summary", "data_version"));
+		assertEquals("text", columnType("clinical_data", "search_text"));
+
+		// Datos que la serie calcula para los registros existentes: resúmenes de estado, texto y términos de búsqueda
+		// (por teléfono: Lucía, Álvaro, Marta)
+		assertEquals(List.of("0 1 0 1 Analíticas", "1 0 0 0 Cardiología", "0 0 0 0 "), jdbc.queryForList(
+				"SELECT CONCAT_WS(' ', s.urgent_count, s.pending_count, s.in_progress_count, s.completed_count, "
+						+ "s.first_category_name) FROM patient_status_summary s "
+						+ "JOIN patient_data p ON p.id = s.patient_id ORDER BY p.phone_number", String.class));
+		assertEquals(StringUtils.normalizeForSearch("Electrocardiograma", "Arritmia leve"), jdbc.queryForObject(
+				"SELECT search_text FROM clinical_data WHERE title = 'Electrocardiograma'", String.class));
+		assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM clinical_data WHERE search_text IS NULL",
+				Integer.class));
+		assertEquals(List.of("5f2c8a71-2b3d-4e6f-8a9b-0c1d2e3f4a5b"), jdbc.queryForList(
+				"SELECT CAST(patient_id AS CHAR) FROM patient_search_term WHERE term = '600000002'", String.class));
+		assertEquals(3, jdbc.queryForObject("SELECT COUNT(DISTINCT patient_id) FROM patient_search_term",
+				Integer.class));
+
+		// Estados de paciente en minúsculas, aunque se guardaran de otra forma
+		assertEquals(List.of("active", "suspended", "active"), jdbc.queryForList(
+				"SELECT status FROM patient_data ORDER BY phone_number", String.class));
+
+		// Los datos de referencia siguen ahí
+		assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM category", Integer.class));
+		assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM sub_category", Integer.class));
+	}
+
+	@Test
+	void createsEmptyDatabaseFromFirstMigration() {
+		migrate();
+
+		assertEquals("uuid", columnType("patient_data", "id"));
+		assertEquals(1, tableCount("patient_status_summary"));
+		assertEquals(1, tableCount("seed_history"));
+	}
+
+	private void migrate() {
+		// La misma configuración que spring.flyway.* en application.properties
+		Flyway.configure()
+				.dataSource(dataSource)
+				.locations("classpath:db/migration")
+				.baselineOnMigrate(true)
+				.baselineVersion("1")
+				.load()
+				.migrate();
+	}
+
+	private String columnType(String table, String column) {
+		return jdbc.queryForObject("SELECT DATA_TYPE FROM information_schema.COLUMNS "
+				+ "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?", String.class, table, column);
+	}
+
+	private int tableCount(String table) {
+		return jdbc.queryForObject("SELECT COUNT(*) FROM information_schema.TABLES "
+				+ "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", Integer.class, table);
+	}
+
+}
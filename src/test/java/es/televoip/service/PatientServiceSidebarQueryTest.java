@@ -0,0 +1,126 @@
+package es.televoip.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import es.televoip.model.CategorySortCursor;
+import es.televoip.model.entities.Category;
+import es.televoip.model.entities.ClinicalData;
+import es.televoip.model.entities.PatientData;
+import es.televoip.model.entities.PatientStatusSummary;
+import es.televoip.model.enums.ClinicalStatus;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Una página del panel lateral ejecuta el mismo número de sentencias SQL con 10 pacientes que con 1.000: la página de
+ * IDs, los pacientes de esa página y sus resúmenes de estado, sin consultas por fila (N+1) ni cargas de datos clínicos.
+ * <p>
+ * Se ejecuta sobre H2 en modo MariaDB con el esquema generado por Hibernate (las migraciones son SQL de MariaDB).
+ */
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:sidebar;MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.flyway.enabled=false",
+		"spring.jpa.properties.hibernate.generate_statistics=true" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ PatientService.class, PatientSearchService.class, PatientStatusSummaryService.class,
+		ClinicalSearchIndex.class, PatientUniquenessService.class })
+class PatientServiceSidebarQueryTest {
+
+	private static final int PAGE_SIZE = 50;
+	private static final int RECORDS_PER_PATIENT = 3;
+
+	@Autowired
+	private PatientService patientService;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Category category;
+	private int patientCount;
+
+	@ParameterizedTest
+	@ValueSource(strings = { "Nombre", "Última Actualización", "Estado", "Categoría" })
+	void sidebarPageRunsConstantNumberOfStatements(String sortOption) {
+		category = entityManager.persist(Category.builder().id("cat-1").name("Analíticas").icon("vaadin:folder")
+				.isActive(true).displayOrder(1).build());
+
+		addPatients(10);
+		long statementsWith10 = statementsForFirstPage(sortOption);
+
+		addPatients(990);
+		long statementsWith1000 = statementsForFirstPage(sortOption);
+
+		assertEquals(statementsWith10, statementsWith1000,
+				"La página del panel lateral no debe ejecutar más sentencias con más pacientes");
+	}
+
+	// Carga la primera página igual que PatientDataView.fetchPatients y lee lo que pinta cada fila
+	private long statementsForFirstPage(String sortOption) {
+		entityManager.flush();
+		entityManager.clear();
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		Pageable pageable = PageRequest.of(0, PAGE_SIZE);
+		List<String> patientIds = "Categoría".equals(sortOption)
+				? patientService.getPatientIdsOrderedByCategory(new CategorySortCursor(), pageable)
+				: patientService.getPatientsPage(sortOption, null, null, pageable).map(PatientData::getId).getContent();
+		List<PatientData> page = patientService.getPatientsWithStatusSummary(patientIds);
+
+		for (PatientData patient : page) {
+			assertNotNull(patient.getName());
+			assertNotNull(patient.getPhoneNumber());
+			PatientStatusSummary summary = patient.getStatusSummary();
+			assertNotNull(summary);
+			for (ClinicalStatus status : ClinicalStatus.values()) {
+				summary.getCount(status);
+			}
+		}
+		assertEquals(Math.min(patientCount, PAGE_SIZE), page.size());
+
+		return statistics.getPrepareStatementCount();
+	}
+
+	private void addPatients(int count) {
+		ClinicalStatus[] statuses = ClinicalStatus.values();
+		for (int i = patientCount; i < patientCount + count; i++) {
+			PatientData patient = entityManager.persist(PatientData.builder().name("Paciente " + i)
+					.lastName("Apellido " + i).email("paciente" + i + "@example.com")
+					.phoneNumber(String.valueOf(600_000_000L + i)).build());
+
+			PatientStatusSummary summary = PatientStatusSummary.builder().patientId(patient.getId())
+					.firstCategoryName(category.getName()).build();
+			for (int r = 0; r < RECORDS_PER_PATIENT; r++) {
+				ClinicalStatus status = statuses[(i + r) % statuses.length];
+				entityManager.persist(ClinicalData.builder().patient(patient).category(category)
+						.title("Registro " + r).description("Descripción del registro " + r)
+						.status(status.getDisplayName()).date(LocalDateTime.now().minusDays(r)).build());
+				summary.addToCount(status, 1);
+			}
+			entityManager.persist(summary);
+		}
+		patientCount += count;
+	}
+
+}
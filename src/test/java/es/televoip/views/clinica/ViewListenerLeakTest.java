@@ -0,0 +1,141 @@
+package es.televoip.views.clinica;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+
+import es.televoip.service.CategoryService;
+import es.televoip.service.ClinicalDataBroadcaster;
+import es.televoip.service.PatientSelectionContext;
+import es.televoip.service.PatientService;
+import es.televoip.util.I18nUtil;
+
+/**
+ * Las vistas se registran al montarse en objetos que viven más que ellas: los listeners de cambio de idioma guardados
+ * en la {@link UI} y {@link ClinicalDataBroadcaster}. Tras miles de navegaciones sobre la misma UI, ninguno de ellos
+ * debe retener las vistas ya cerradas: el recolector de basura tiene que poder liberarlas todas.
+ */
+class ViewListenerLeakTest {
+
+	private static final int NAVIGATIONS = 2000;
+
+	// Intentos de recolección antes de dar una vista por retenida
+	private static final int GC_ATTEMPTS = 20;
+
+	private UI ui;
+	private PatientService patientService;
+	private CategoryService categoryService;
+	private I18nUtil i18nUtil;
+	private PatientSelectionContext selectionContext;
+	private ClinicalDataBroadcaster broadcaster;
+
+	@BeforeEach
+	void setUp() {
+		ui = new UI();
+		UI.setCurrent(ui);
+		// Sin registro de llamadas: los mocks no deben retener las vistas que se les pasan
+		patientService = mock(PatientService.class, withSettings().stubOnly());
+		categoryService = mock(CategoryService.class, withSettings().stubOnly());
+		i18nUtil = mock(I18nUtil.class, withSettings().stubOnly());
+		when(i18nUtil.get(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+		selectionContext = new PatientSelectionContext();
+		broadcaster = new ClinicalDataBroadcaster(patientService);
+	}
+
+	@AfterEach
+	void tearDown() {
+		broadcaster.shutdown();
+		UI.setCurrent(null);
+	}
+
+	@Test
+	void closedPatientDataViewsAreCollected() throws InterruptedException {
+		assertClosedViewsAreCollected(this::newPatientDataView);
+	}
+
+	@Test
+	void closedPatientCreationViewsAreCollected() throws InterruptedException {
+		assertClosedViewsAreCollected(() -> new PatientCreationView(patientService, i18nUtil));
+	}
+
+	@Test
+	void reattachedPatientDataViewIsCollectedOnceClosed() throws InterruptedException {
+		awaitCollected(List.of(openAndCloseRepeatedly(newPatientDataView())));
+	}
+
+	private PatientDataView newPatientDataView() {
+		return new PatientDataView(patientService, categoryService, selectionContext,
+				mock(ExecutorService.class, withSettings().stubOnly()), i18nUtil, broadcaster);
+	}
+
+	// Una vista nueva en cada navegación, como hace el router
+	private void assertClosedViewsAreCollected(Supplier<Component> newView) throws InterruptedException {
+		List<WeakReference<Component>> closedViews = new ArrayList<>(NAVIGATIONS);
+		for (int i = 0; i < NAVIGATIONS; i++) {
+			closedViews.add(openAndClose(newView.get()));
+		}
+		awaitCollected(closedViews);
+	}
+
+	// La vista solo se recibe como parámetro: al volver no queda ninguna variable local que la mantenga viva
+	private WeakReference<Component> openAndClose(Component view) {
+		navigate(view);
+		return new WeakReference<>(view);
+	}
+
+	private WeakReference<Component> openAndCloseRepeatedly(Component view) {
+		for (int i = 0; i < NAVIGATIONS; i++) {
+			navigate(view);
+		}
+		return new WeakReference<>(view);
+	}
+
+	// Entrar en la vista y salir de ella, con la respuesta al navegador después de cada paso
+	private void navigate(Component view) {
+		ui.add(view);
+		writeResponse();
+		ui.remove(view);
+		writeResponse();
+	}
+
+	// Lo que hace Vaadin al escribir la respuesta: vacía los cambios y las llamadas JavaScript pendientes, que hasta
+	// entonces referencian nodos ya desmontados
+	private void writeResponse() {
+		ui.getInternals().getStateTree().collectChanges(change -> {
+		});
+		ui.getInternals().dumpPendingJavaScriptInvocations();
+	}
+
+	private void awaitCollected(List<WeakReference<Component>> closedViews) throws InterruptedException {
+		for (int attempt = 0; attempt < GC_ATTEMPTS && retained(closedViews) > 0; attempt++) {
+			System.gc();
+			Thread.sleep(50);
+		}
+		assertEquals(0, retained(closedViews), "Vistas cerradas que siguen referenciadas");
+
+		// La UI y el broadcaster siguen vivos durante la comprobación: si retuvieran las vistas, no se liberarían
+		Reference.reachabilityFence(ui);
+		Reference.reachabilityFence(broadcaster);
+	}
+
+	private static long retained(List<WeakReference<Component>> views) {
+		return views.stream().filter(view -> view.get() != null).count();
+	}
+
+}
@@ -0,0 +1,38 @@
+-- Base de datos tal como la dejaba la aplicación antes de Flyway (commit d05d70f): esquema generado por
+-- spring.jpa.hibernate.ddl-auto=update, con los nombres de restricción que genera Hibernate, y algunos datos.
+
+create table category (display_order integer not null, is_active bit not null, icon varchar(255), id varchar(255) not null, name varchar(255), primary key (id)) engine=InnoDB;
+create table sub_category (display_order integer not null, is_active bit not null, is_required bit not null, category_id varchar(255) not null, icon varchar(255), id varchar(255) not null, name varchar(255), primary key (id)) engine=InnoDB;
+create table patient_data (created_at datetime(6), updated_at datetime(6), id varchar(36) not null, address varchar(255), email varchar(255), gender varchar(255), last_name varchar(255), name varchar(255) not null, phone_number varchar(255) not null, status varchar(255) not null, primary key (id)) engine=InnoDB;
+create table clinical_data (date datetime(6) not null, id varchar(36) not null, category_id varchar(255) not null, description TEXT, status varchar(255) not null, title varchar(255) not null, primary key (id)) engine=InnoDB;
+create table patient_clinical_data (clinical_data_id varchar(36) not null, patient_id varchar(36) not null) engine=InnoDB;
+alter table if exists patient_clinical_data add constraint UKl8mwt3ocjy4t0ka6m3dnbh3lq unique (clinical_data_id);
+alter table if exists patient_data add constraint UK7sa0hb0db6ylam7fs0dv7f7bs unique (email);
+alter table if exists patient_data add constraint UKqf1vsgxr6ycsfxt0j4i2pmnvp unique (phone_number);
+alter table if exists clinical_data add constraint FKkq2pdyj0ip8ujnmk3icp9ln4o foreign key (category_id) references category (id);
+alter table if exists patient_clinical_data add constraint FKfxt2f3b0myd0k6y4qfbdl6lmm foreign key (clinical_data_id) references clinical_data (id);
+alter table if exists patient_clinical_data add constraint FK2xjr2jvnhwfbf5ur3crr6c5ot foreign key (patient_id) references patient_data (id);
+alter table if exists sub_category add constraint FKl65dyy5me2ypoyj8ou1hnt64e foreign key (category_id) references category (id);
+
+insert into category (id, name, icon, is_active, display_order) values
+    ('analiticas', 'Analíticas', 'vaadin:drop', 1, 1),
+    ('cardiologia', 'Cardiología', 'vaadin:heart', 1, 2);
+insert into sub_category (id, name, icon, is_active, is_required, display_order, category_id) values
+    ('hemograma', 'Hemograma', 'vaadin:drop', 1, 0, 1, 'analiticas');
+
+insert into patient_data (id, name, last_name, email, phone_number, status, created_at, updated_at) values
+    ('0b7e3d9a-6c1f-4a53-9d2e-3f4b5c6d7e8f', 'Lucía', 'Gómez', 'lucia@example.com', '600000001', 'active', '2024-01-10 09:00:00', NULL),
+    ('5f2c8a71-2b3d-4e6f-8a9b-0c1d2e3f4a5b', 'Álvaro', 'Núñez', NULL, '600000002', 'Suspended', '2024-02-01 10:30:00', '2024-03-01 11:00:00'),
+    ('c4d5e6f7-8a9b-4c0d-9e1f-2a3b4c5d6e7f', 'Marta', NULL, 'marta@example.com', '600000003', 'active', '2024-03-15 12:00:00', NULL);
+
+insert into clinical_data (id, category_id, title, description, status, date) values
+    ('1a2b3c4d-5e6f-4a7b-8c9d-0e1f2a3b4c5d', 'analiticas', 'Análisis de sangre', 'Colesterol elevado', 'Pendiente', '2024-01-11 08:00:00'),
+    ('2b3c4d5e-6f7a-4b8c-9d0e-1f2a3b4c5d6e', 'cardiologia', 'Revisión cardiológica', 'Sin hallazgos', 'Completado', '2024-01-20 08:00:00'),
+    ('3c4d5e6f-7a8b-4c9d-8e1f-2a3b4c5d6e7f', 'cardiologia', 'Electrocardiograma', 'Arritmia leve', 'Urgente', '2024-02-05 08:00:00'),
+    -- Sin fila en la tabla de unión: no pertenece a ningún paciente
+    ('4d5e6f7a-8b9c-4d0e-9f1a-2b3c4d5e6f7a', 'analiticas', 'Registro huérfano', 'Sin paciente', 'Pendiente', '2024-02-10 08:00:00');
+
+insert into patient_clinical_data (patient_id, clinical_data_id) values
+    ('0b7e3d9a-6c1f-4a53-9d2e-3f4b5c6d7e8f', '1a2b3c4d-5e6f-4a7b-8c9d-0e1f2a3b4c5d'),
+    ('0b7e3d9a-6c1f-4a53-9d2e-3f4b5c6d7e8f', '2b3c4d5e-6f7a-4b8c-9d0e-1f2a3b4c5d6e'),
+    ('5f2c8a71-2b3d-4e6f-8a9b-0c1d2e3f4a5b', '3c4d5e6f-7a8b-4c9d-8e1f-2a3b4c5d6e7f');